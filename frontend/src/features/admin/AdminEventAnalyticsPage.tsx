@@ -24,6 +24,12 @@ interface TopPerformer {
     rank: number;
 }
 
+interface ScoreBucket {
+    from: number;
+    to: number;
+    count: number;
+}
+
 interface Analytics {
     totalRegistrations: number;
     totalAttempts: number;
@@ -33,6 +39,10 @@ interface Analytics {
     lowestScore: number;
     passPercentage: number;
     topPerformers: TopPerformer[];
+    medianScore?: number | null;
+    p90Score?: number | null;
+    stdDevScore?: number | null;
+    distribution?: ScoreBucket[] | null;
 }
 
 export default function AdminEventAnalyticsPage() {
@@ -199,6 +209,39 @@ export default function AdminEventAnalyticsPage() {
                 </Card>
             </div>
 
+            {/* Score Distribution */}
+            {analytics.distribution && analytics.distribution.length > 0 && (
+                <Card className="bg-white dark:bg-gray-800 border dark:border-gray-700">
+                    <CardHeader>
+                        <CardTitle className="text-sm font-medium">Score Distribution</CardTitle>
+                        <p className="text-xs text-gray-400 dark:text-gray-500">
+                            Median {analytics.medianScore?.toFixed(2)} · P90 {analytics.p90Score?.toFixed(2)} · Std dev {analytics.stdDevScore?.toFixed(2)}
+                        </p>
+                    </CardHeader>
+                    <CardContent>
+                        <div className="space-y-2">
+                            {analytics.distribution.map((bucket) => {
+                                const max = Math.max(...analytics.distribution!.map(b => b.count), 1);
+                                return (
+                                    <div key={bucket.from} className="flex items-center gap-3 text-sm">
+                                        <span className="w-24 text-gray-500 dark:text-gray-400">
+                                            {bucket.from.toFixed(1)}–{bucket.to.toFixed(1)}
+                                        </span>
+                                        <div className="flex-1 h-3 bg-gray-100 dark:bg-gray-700 rounded">
+                                            <div
+                                                className="h-3 bg-indigo-500 dark:bg-indigo-400 rounded"
+                                                style={{ width: `${(bucket.count / max) * 100}%` }}
+                                            />
+                                        </div>
+                                        <span className="w-10 text-right dark:text-white">{bucket.count}</span>
+                                    </div>
+                                );
+                            })}
+                        </div>
+                    </CardContent>
+                </Card>
+            )}
+
             {/* Top Performers Table */}
             <Card className="bg-white dark:bg-gray-800 border dark:border-gray-700">
                 <CardHeader>
@@ -37,6 +37,17 @@ export default function AdminProblemsPage() {
         }
     };
 
+    // The list only carries test case metadata; hidden payloads come from the admin endpoint
+    const handleEdit = async (id: string) => {
+        try {
+            const response = await api.get(`/problem/admin/getById/${id}`);
+            setCurrentProblem(response.data);
+            setIsEditing(true);
+        } catch (error) {
+            toast.error('Failed to load test cases');
+        }
+    };
+
     const handleSave = async () => {
         try {
             const payload = {
@@ -164,7 +175,7 @@ export default function AdminProblemsPage() {
                                     <span className="text-xs bg-gray-100 dark:bg-gray-800 text-gray-700 dark:text-gray-200 px-2 py-1 rounded">{problem.difficulty}</span>
                                 </div>
                                 <div className="flex space-x-2">
-                                    <Button size="sm" variant="secondary" className="text-gray-700 dark:text-gray-200 bg-gray-100 dark:bg-gray-800 border border-gray-200 dark:border-gray-700 hover:bg-gray-200 dark:hover:bg-gray-700" onClick={() => { setCurrentProblem(problem); setIsEditing(true); }}><Edit className="h-4 w-4" /></Button>
+                                    <Button size="sm" variant="secondary" className="text-gray-700 dark:text-gray-200 bg-gray-100 dark:bg-gray-800 border border-gray-200 dark:border-gray-700 hover:bg-gray-200 dark:hover:bg-gray-700" onClick={() => handleEdit(problem.id)}><Edit className="h-4 w-4" /></Button>
                                     <Button size="sm" variant="danger" onClick={() => handleDelete(problem.id)}><Trash className="h-4 w-4" /></Button>
                                 </div>
                             </CardContent>
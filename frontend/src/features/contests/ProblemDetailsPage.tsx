@@ -86,7 +86,12 @@ export default function ProblemDetailsPage() {
                 code: code,
                 language: language
             });
-            const result = response.data;
+            let result = response.data;
+            // Judging happens in the background; poll until a verdict is written
+            for (let attempt = 0; result.verdict === 'PENDING' && attempt < 120; attempt++) {
+                await new Promise(resolve => setTimeout(resolve, 1000));
+                result = (await api.get(`/submission/${result.id}`)).data;
+            }
             setVerdict({ status: result.verdict, score: result.score });
             if (result.verdict === 'ACCEPTED') {
                 setAlreadySolved(true);
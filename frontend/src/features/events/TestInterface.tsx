@@ -29,6 +29,13 @@ export default function TestInterface() {
                     const qs = response.data.questions || response.data;
                     setQuestions(Array.isArray(qs) ? qs : []);
                 }
+                // Restore answers saved before a reload or dropped connection
+                try {
+                    const saved = await api.get(`/api/mcq/autosave/${eventId}`);
+                    setAnswers(prev => ({ ...saved.data, ...prev }));
+                } catch {
+                    // Nothing saved yet
+                }
                 setIsLoading(false);
             } catch (error: any) {
                 toast.error('Failed to start test or test already completed.');
@@ -38,28 +45,40 @@ export default function TestInterface() {
         if (eventId) startTest();
     }, [eventId, navigate]);
 
-    // Sync Timer
+    // Sync Timer: the server pushes the deadline and periodic syncs over SSE once the test has started
     useEffect(() => {
-        if (!eventId) return;
+        if (!eventId || isLoading) return;
 
-        const syncTime = async () => {
+        // EventSource cannot send credentials, so the stream is opened with a token for this session
+        let source: EventSource | null = null;
+        let closed = false;
+        const openStream = async () => {
+            let token: string;
             try {
-                const response = await api.get(`/api/mcq/remaining-time/${eventId}`);
-                // Assuming response is number (seconds) or object { remainingTime: number }
-                // Spec says RemainingTimeResponseDTO
-                // Let's assume it has `remainingTime` in seconds
-                const time = response.data.remainingTime; // seconds
-                setRemainingTime(time);
-
-                if (time <= 0) {
-                    handleSubmit(true);
-                }
-            } catch (error) {
-                // console.error(error);
+                token = (await api.post(`/api/mcq/countdown/${eventId}/token`)).data.token;
+            } catch {
+                // The local countdown below keeps running
+                return;
             }
+            if (closed) return;
+            const stream = new EventSource(
+                `${api.defaults.baseURL}/api/mcq/countdown/${eventId}?token=${encodeURIComponent(token)}`
+            );
+            source = stream;
+
+            const syncTime = (event: MessageEvent) => {
+                setRemainingTime(JSON.parse(event.data).remainingSeconds);
+            };
+            stream.addEventListener('deadline', syncTime);
+            stream.addEventListener('sync', syncTime);
+            stream.addEventListener('time-up', () => {
+                setRemainingTime(0);
+                handleSubmit(true);
+            });
+            stream.addEventListener('submitted', () => stream.close());
         };
+        openStream();
 
-        syncTime(); // Initial sync
         const interval = setInterval(() => {
             setRemainingTime(prev => {
                 if (prev === null) return null;
@@ -72,14 +91,12 @@ export default function TestInterface() {
             });
         }, 1000);
 
-        // Sync with server every 30s
-        const syncInterval = setInterval(syncTime, 30000);
-
         return () => {
+            closed = true;
             clearInterval(interval);
-            clearInterval(syncInterval);
+            source?.close();
         };
-    }, [eventId]);
+    }, [eventId, isLoading]);
 
     const handleOptionSelect = (questionId: string | undefined, optionIndex: number) => {
         if (!questionId) return; // Should not happen if Question has ID
@@ -91,6 +108,9 @@ export default function TestInterface() {
             ...prev,
             [questionId]: optionIndex
         }));
+        // Fire and forget; the final submit still sends every answer
+        api.put(`/api/mcq/autosave/${eventId}`, { questionId, selectedOption: optionIndex })
+            .catch(() => {});
     };
 
     const handleSubmit = useCallback(async (_autoSubmit = false) => {
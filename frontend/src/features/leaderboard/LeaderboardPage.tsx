@@ -11,22 +11,28 @@ export default function LeaderboardPage() {
     const [isLoading, setIsLoading] = useState(true);
 
     useEffect(() => {
-        const fetchLeaderboard = async () => {
-            try {
-                const response = await api.get(`/leaderboard/${contestId}`);
-                // Ensure result is array and sorted
-                const sorted = (response.data || []).sort((a: LeaderboardEntry, b: LeaderboardEntry) => {
-                    if (b.totalScore !== a.totalScore) return b.totalScore - a.totalScore;
-                    return 0; // Secondary sort by time if needed
-                });
-                setLeaderboard(sorted);
-            } catch (error) {
-                // error
-            } finally {
-                setIsLoading(false);
-            }
-        };
-        if (contestId) fetchLeaderboard();
+        if (!contestId) return;
+
+        // Full standings once, then only the rows that changed
+        const source = new EventSource(`${api.defaults.baseURL}/leaderboard/${contestId}/stream`);
+
+        source.addEventListener('snapshot', (event: MessageEvent) => {
+            setLeaderboard(JSON.parse(event.data) || []);
+            setIsLoading(false);
+        });
+        source.addEventListener('delta', (event: MessageEvent) => {
+            const changed: LeaderboardEntry[] = JSON.parse(event.data);
+            setLeaderboard((current) => {
+                const byUser = new Map(current.map((entry) => [entry.userId, entry]));
+                changed.forEach((entry) => byUser.set(entry.userId, entry));
+                return Array.from(byUser.values()).sort((a, b) => a.rank - b.rank);
+            });
+        });
+        // Finished contests end the stream after the snapshot; anything else reconnects
+        source.addEventListener('closed', () => source.close());
+        source.onerror = () => setIsLoading(false);
+
+        return () => source.close();
     }, [contestId]);
 
     if (isLoading) return <div className="flex justify-center p-12"><Loader2 className="animate-spin" /></div>;
@@ -53,9 +59,9 @@ export default function LeaderboardPage() {
                                 </tr>
                             </thead>
                             <tbody>
-                                {leaderboard.map((entry, idx) => (
+                                {leaderboard.map((entry) => (
                                     <tr key={entry.userId} className="border-b border-gray-200 dark:border-gray-700 hover:bg-gray-50 dark:hover:bg-gray-800 text-gray-900 dark:text-gray-200">
-                                        <td className="px-6 py-4 font-medium">{idx + 1}</td>
+                                        <td className="px-6 py-4 font-medium">{entry.rank}</td>
                                         <td className="px-6 py-4">{entry.username || entry.userId}</td>
                                         <td className="px-6 py-4 font-mono text-xs">{entry.rollNumber}</td>
                                         <td className="px-6 py-4">{entry.problemsSolved}</td>
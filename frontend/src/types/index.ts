@@ -51,8 +51,8 @@ export interface Problem {
 }
 
 export interface TestCase {
-    input: string;
-    expectedOutput: string;
+    input?: string; // Left out for hidden cases outside the admin view
+    expectedOutput?: string;
     hidden: boolean;
 }
 
@@ -87,12 +87,17 @@ export interface McqResult {
 }
 
 export interface LeaderboardEntry {
+    rank: number;
     userId: string;
     username: string;
     rollNumber: string;
+    branch?: string;
+    course?: string;
     totalScore: number;
     problemsSolved: number;
     lastSubmissionTime: string;
+    branchRank?: number;
+    courseRank?: number;
 }
 
 export interface UserActivity {
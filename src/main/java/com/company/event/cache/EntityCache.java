@@ -0,0 +1,118 @@
+package com.company.event.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of a repository's findById. Bounded by size
+ * (least recently used goes first) and by age, so a write that bypassed
+ * invalidation is only visible for at most one TTL.
+ *
+ * Cached entities are shared between requests: callers must treat them as
+ * read-only and go to the repository for anything they intend to modify and
+ * save, then call {@link #invalidate(String)}.
+ *
+ * Metrics: entity.cache.hits, entity.cache.misses, entity.cache.evictions,
+ * entity.cache.size, all tagged with cache=&lt;name&gt;
+ */
+public class EntityCache<T> {
+
+    private final Function<String, Optional<T>> loader;
+    private final long ttlNanos;
+    private final Map<String, Entry<T>> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    // Bumped by every invalidation; a load that raced with one is not cached
+    private long generation;
+
+    public EntityCache(String name,
+                       Function<String, Optional<T>> loader,
+                       int maxSize,
+                       Duration ttl,
+                       MeterRegistry meterRegistry) {
+
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+
+        this.hits = Counter.builder("entity.cache.hits").tag("cache", name).register(meterRegistry);
+        this.misses = Counter.builder("entity.cache.misses").tag("cache", name).register(meterRegistry);
+        this.evictions = Counter.builder("entity.cache.evictions").tag("cache", name).register(meterRegistry);
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        Gauge.builder("entity.cache.size", this, EntityCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public Optional<T> findById(String id) {
+
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return Optional.of(entry.value);
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        // Loaded outside the lock; two concurrent misses may both hit the database
+        misses.increment();
+        Optional<T> loaded = loader.apply(id);
+
+        // Absent ids are not cached, so a newly created entity is found right away
+        loaded.ifPresent(value -> {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(id, new Entry<>(value, System.nanoTime()));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    public synchronized void invalidate(String id) {
+        generation++;
+        entries.remove(id);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.company.event.cache;
+
+import com.company.event.contestPackage.contest.Contest;
+import com.company.event.contestPackage.contest.ContestRepository;
+import com.company.event.contestPackage.problem.Problem;
+import com.company.event.contestPackage.problem.ProblemRepository;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.repository.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Events, contests and problems are read on nearly every request but only change through admin endpoints
+@Configuration
+public class EntityCacheConfig {
+
+    @Value("${entity-cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${entity-cache.ttl:5m}")
+    private Duration ttl;
+
+    @Bean
+    public EntityCache<Event> eventCache(EventRepository repository, MeterRegistry meterRegistry) {
+        return new EntityCache<>("event", repository::findById, maxSize, ttl, meterRegistry);
+    }
+
+    @Bean
+    public EntityCache<Contest> contestCache(ContestRepository repository, MeterRegistry meterRegistry) {
+        return new EntityCache<>("contest", repository::findById, maxSize, ttl, meterRegistry);
+    }
+
+    @Bean
+    public EntityCache<Problem> problemCache(ProblemRepository repository, MeterRegistry meterRegistry) {
+        return new EntityCache<>("problem", repository::findById, maxSize, ttl, meterRegistry);
+    }
+}
@@ -1,7 +1,11 @@
 package com.company.event.contestPackage.contest;
 
+import com.company.event.ClubsEnum;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.List;
+
 public interface ContestRepository extends MongoRepository<Contest,String> {
 
+    List<Contest> findAllByClubId(ClubsEnum clubId);
 }
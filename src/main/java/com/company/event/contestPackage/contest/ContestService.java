@@ -1,5 +1,7 @@
 package com.company.event.contestPackage.contest;
 
+import com.company.event.cache.EntityCache;
+import com.company.event.contestPackage.leaderboard.LeaderboardStandings;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -14,6 +16,8 @@ import java.util.stream.Collectors;
 public class ContestService {
 
     private final ContestRepository contestRepository;
+    private final EntityCache<Contest> contestCache;
+    private final LeaderboardStandings standings;
 
     public ContestResponse createContest(ContestRequest request) {
 
@@ -75,6 +79,8 @@ public class ContestService {
             );
         }
         contestRepository.deleteById(id);
+        contestCache.invalidate(id);
+        standings.evict(id);
     }
 
     public ContestResponse updateContest(ContestRequest request, String id) {
@@ -100,7 +106,11 @@ public class ContestService {
         contest.setFacultyCoordinators(request.getFacultyCoordinators());
         contest.setStudentCoordinators(request.getStudentCoordinators());
 
-        return mapToResponse(contestRepository.save(contest));
+        Contest saved = contestRepository.save(contest);
+        contestCache.invalidate(id);
+        // The end time may have moved, so a cached final leaderboard may no longer apply
+        standings.evict(id);
+        return mapToResponse(saved);
     }
 
     private ContestResponse mapToResponse(Contest contest) {
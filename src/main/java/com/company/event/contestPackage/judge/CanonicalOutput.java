@@ -0,0 +1,149 @@
+package com.company.event.contestPackage.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Streaming view of a program output in its canonical form: line endings
+ * folded to \n and leading/trailing whitespace dropped (the same characters
+ * String.trim() drops). Interior whitespace is kept as-is.
+ *
+ * Expected outputs are hashed in this form when a problem is saved, so an
+ * EXACT comparison can be confirmed by digest without reading them back.
+ */
+@Getter
+@AllArgsConstructor
+public class CanonicalOutput {
+
+    private final String digest;
+    private final long length;
+
+    public static CanonicalOutput of(String text) {
+        try {
+            return of(new StringReader(text == null ? "" : text), Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return null as soon as the canonical form grows past maxLength
+     */
+    public static CanonicalOutput of(Reader in, long maxLength) throws IOException {
+
+        MessageDigest digest = sha256();
+        CharStream chars = new CharStream(in);
+        byte[] buffer = new byte[8192];
+        int filled = 0;
+        long length = 0;
+
+        int c;
+        while ((c = chars.next()) != -1) {
+            if (++length > maxLength) {
+                return null;
+            }
+            buffer[filled++] = (byte) (c >>> 8);
+            buffer[filled++] = (byte) c;
+            if (filled == buffer.length) {
+                digest.update(buffer, 0, filled);
+                filled = 0;
+            }
+        }
+        digest.update(buffer, 0, filled);
+
+        return new CanonicalOutput(HexFormat.of().formatHex(digest.digest()), length);
+    }
+
+    static boolean isWhitespace(int c) {
+        return c <= ' ';
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Yields canonical characters one at a time. Only a run of whitespace is
+     * ever held back, until it is known not to be trailing.
+     */
+    static class CharStream {
+
+        private final Reader in;
+        private final StringBuilder whitespace = new StringBuilder();
+        private int whitespaceIndex;
+        private int pushedBack = -2;
+        private int afterWhitespace = -2;
+        private boolean started;
+
+        CharStream(Reader in) {
+            this.in = in;
+        }
+
+        int next() throws IOException {
+
+            // Emit a held-back interior whitespace run, then the char that ended it
+            if (whitespaceIndex < whitespace.length()) {
+                return whitespace.charAt(whitespaceIndex++);
+            }
+            if (afterWhitespace != -2) {
+                int c = afterWhitespace;
+                afterWhitespace = -2;
+                return c;
+            }
+
+            int c = read();
+            while (!started && c != -1 && isWhitespace(c)) {
+                c = read();
+            }
+            if (c == -1 || !isWhitespace(c)) {
+                started = true;
+                return c;
+            }
+
+            whitespace.setLength(0);
+            whitespaceIndex = 0;
+            while (c != -1 && isWhitespace(c)) {
+                whitespace.append((char) c);
+                c = read();
+            }
+            if (c == -1) {
+                // Trailing whitespace is dropped
+                whitespace.setLength(0);
+                return -1;
+            }
+            afterWhitespace = c;
+            whitespaceIndex = 1;
+            return whitespace.charAt(0);
+        }
+
+        // Reads one char with \r\n and lone \r folded to \n
+        private int read() throws IOException {
+            int c;
+            if (pushedBack != -2) {
+                c = pushedBack;
+                pushedBack = -2;
+            } else {
+                c = in.read();
+            }
+            if (c == '\r') {
+                int following = in.read();
+                if (following != '\n') {
+                    pushedBack = following;
+                }
+                return '\n';
+            }
+            return c;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.company.event.contestPackage.judge;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Compiles a program once and runs it against any number of inputs.
+ * The judge only talks to this interface; which implementation is active
+ * is picked with the judge.executor property (jdoodle or local).
+ */
+public interface CodeExecutor {
+
+    /**
+     * Never throws for bad source; a failed compile comes back as a program
+     * whose {@link CompiledProgram#isCompiled()} is false.
+     *
+     * @param language one of JudgeService.SUPPORTED_LANGUAGES
+     */
+    CompiledProgram compile(String sourceCode, String language);
+
+    ExecutionResult run(CompiledProgram program, String stdin);
+
+    /**
+     * Like {@link #run(CompiledProgram, String)}, but stdout is handed to
+     * reader while the program runs instead of being collected; the result's
+     * output is then null. The reader's value is only kept when the run
+     * ended OK. This default is for executors that get the output in one
+     * piece anyway (remote APIs).
+     */
+    default <T> StreamedRun<T> run(CompiledProgram program, String stdin, OutputReader<T> reader) throws IOException {
+        ExecutionResult result = run(program, stdin);
+        if (result.getStatus() != ExecutionStatus.OK) {
+            return new StreamedRun<>(result, null);
+        }
+        T value = reader.read(new StringReader(result.getOutput() != null ? result.getOutput() : ""));
+        return new StreamedRun<>(result, value);
+    }
+
+    /**
+     * Frees whatever {@link #compile} left behind (build directories etc.).
+     */
+    default void discard(CompiledProgram program) {
+    }
+
+    /**
+     * False when compile() is only a placeholder and compilation really
+     * happens on every run (remote APIs). The judge then probes one test
+     * case before fanning out, so a compile error is not run N times.
+     */
+    default boolean compilesSeparately() {
+        return true;
+    }
+
+    @FunctionalInterface
+    interface OutputReader<T> {
+        T read(Reader output) throws IOException;
+    }
+
+    record StreamedRun<T>(ExecutionResult result, T value) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.company.event.contestPackage.judge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small LRU of compiled programs keyed by source hash and language, so an
+ * identical resubmission skips compilation. Failed compiles are cached too.
+ *
+ * Callers must pair every {@link #acquire} with {@link #release}; an evicted
+ * artifact is only discarded once nobody is running it anymore.
+ */
+@Component
+public class CompiledArtifactCache {
+
+    private final CodeExecutor codeExecutor;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<String, CompiledProgram> programs;
+
+    public CompiledArtifactCache(CodeExecutor codeExecutor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${judge.artifact-cache-size:64}") int capacity) {
+        this.codeExecutor = codeExecutor;
+        this.hits = Counter.builder("judge.artifact.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("judge.artifact.cache.misses").register(meterRegistry);
+        this.programs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledProgram> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                eldest.getValue().evicted = true;
+                discardIfUnused(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public CompiledProgram acquire(String sourceCode, String language) {
+
+        // Nothing worth caching when compile() is a placeholder
+        if (!codeExecutor.compilesSeparately()) {
+            return codeExecutor.compile(sourceCode, language);
+        }
+
+        String key = key(sourceCode, language);
+
+        synchronized (this) {
+            CompiledProgram cached = programs.get(key);
+            if (cached != null) {
+                hits.increment();
+                cached.users++;
+                return cached;
+            }
+        }
+
+        misses.increment();
+
+        // Compile outside the lock; if another worker won the race, keep theirs
+        CompiledProgram compiled = codeExecutor.compile(sourceCode, language);
+
+        synchronized (this) {
+            CompiledProgram existing = programs.putIfAbsent(key, compiled);
+            if (existing != null) {
+                codeExecutor.discard(compiled);
+                existing.users++;
+                return existing;
+            }
+            compiled.users++;
+            return compiled;
+        }
+    }
+
+    public synchronized void release(CompiledProgram program) {
+        if (!codeExecutor.compilesSeparately()) {
+            return;
+        }
+        program.users--;
+        discardIfUnused(program);
+    }
+
+    private void discardIfUnused(CompiledProgram program) {
+        if (program.evicted && program.users == 0) {
+            codeExecutor.discard(program);
+        }
+    }
+
+    private String key(String sourceCode, String language) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(sourceCode.getBytes(StandardCharsets.UTF_8));
+            return language.toLowerCase() + ":" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
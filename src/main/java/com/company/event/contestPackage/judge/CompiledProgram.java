@@ -0,0 +1,29 @@
+package com.company.event.contestPackage.judge;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+@Getter
+public class CompiledProgram {
+
+    private final String language;
+    private final String sourceCode;
+    private final Path artifactDir;     // null for remote executors
+    private final String compileError;  // null when compilation succeeded
+
+    // Guarded by CompiledArtifactCache
+    int users;
+    boolean evicted;
+
+    public CompiledProgram(String language, String sourceCode, Path artifactDir, String compileError) {
+        this.language = language;
+        this.sourceCode = sourceCode;
+        this.artifactDir = artifactDir;
+        this.compileError = compileError;
+    }
+
+    public boolean isCompiled() {
+        return compileError == null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.problem.TestCase;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Equal canonical forms (see {@link CanonicalOutput}). When the test case
+ * carries a precomputed digest the expected text is never read: the output
+ * is hashed while streaming and abandoned once it is longer than expected.
+ */
+public class ExactOutputComparator implements OutputComparator {
+
+    @Override
+    public boolean matches(Reader actual, TestCase testCase, ExpectedOutput expected) throws IOException {
+
+        if (testCase.getExpectedOutputDigest() != null && testCase.getExpectedOutputLength() != null) {
+            CanonicalOutput output = CanonicalOutput.of(actual, testCase.getExpectedOutputLength());
+            return output != null
+                    && output.getLength() == testCase.getExpectedOutputLength()
+                    && output.getDigest().equals(testCase.getExpectedOutputDigest());
+        }
+
+        try (Reader expectedText = expected.open()) {
+            CanonicalOutput.CharStream got = new CanonicalOutput.CharStream(actual);
+            CanonicalOutput.CharStream want = new CanonicalOutput.CharStream(expectedText);
+
+            while (true) {
+                int a = got.next();
+                int e = want.next();
+                if (a != e) {
+                    return false;
+                }
+                if (a == -1) {
+                    return true;
+                }
+            }
+        }
+    }
+}
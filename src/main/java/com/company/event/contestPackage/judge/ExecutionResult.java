@@ -0,0 +1,18 @@
+package com.company.event.contestPackage.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ExecutionResult {
+    private ExecutionStatus status;
+    private String output;
+    private String error;
+    private Integer exitCode;
+    private Long timeMillis;
+}
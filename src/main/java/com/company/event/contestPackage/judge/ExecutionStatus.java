@@ -0,0 +1,10 @@
+package com.company.event.contestPackage.judge;
+
+public enum ExecutionStatus {
+    OK,
+    COMPILATION_ERROR,
+    RUNTIME_ERROR,
+    TIME_LIMIT_EXCEEDED,
+    MEMORY_LIMIT_EXCEEDED,
+    OUTPUT_LIMIT_EXCEEDED
+}
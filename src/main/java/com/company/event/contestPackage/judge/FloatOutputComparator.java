@@ -0,0 +1,39 @@
+package com.company.event.contestPackage.judge;
+
+import java.util.regex.Pattern;
+
+/**
+ * Token comparison where two numeric tokens match if they are within the
+ * tolerance, absolute or relative to the expected value. Non-numeric tokens
+ * must be identical.
+ *
+ * Only plain decimal notation counts as numeric: Double.parseDouble would
+ * also take "1f", "0x1p0" or "Infinity".
+ */
+public class FloatOutputComparator extends TokenOutputComparator {
+
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private final double tolerance;
+
+    public FloatOutputComparator(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    protected boolean tokensMatch(String actual, String expected) {
+
+        if (actual.equals(expected)) {
+            return true;
+        }
+
+        if (!DECIMAL.matcher(actual).matches() || !DECIMAL.matcher(expected).matches()) {
+            return false;
+        }
+        double got = Double.parseDouble(actual);
+        double want = Double.parseDouble(expected);
+
+        double error = Math.abs(got - want);
+        return error <= tolerance || error <= tolerance * Math.abs(want);
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.submission.JDoodleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "judge.executor", havingValue = "jdoodle", matchIfMissing = true)
+public class JDoodleCodeExecutor implements CodeExecutor {
+
+    private final JDoodleService jDoodleService;
+
+    // JDoodle compiles on every call, so there is nothing to do up front
+    @Override
+    public CompiledProgram compile(String sourceCode, String language) {
+        return new CompiledProgram(language, sourceCode, null, null);
+    }
+
+    @Override
+    public boolean compilesSeparately() {
+        return false;
+    }
+
+    @Override
+    public ExecutionResult run(CompiledProgram program, String stdin) {
+
+        Map<String, Object> result = jDoodleService.executeCode(
+                program.getSourceCode(),
+                getLanguageParam(program.getLanguage()),
+                getVersionIndex(program.getLanguage()),
+                stdin
+        );
+
+        // A failure on JDoodle's side is not the program's verdict; judged as INTERNAL_ERROR, never cached
+        if (result == null || result.get("error") != null) {
+            throw new IllegalStateException("JDoodle did not run the program: "
+                    + (result == null ? "empty response" : result.get("error")));
+        }
+
+        String output = result.get("output") != null
+                ? (String) result.get("output")
+                : "";
+
+        ExecutionStatus status = ExecutionStatus.OK;
+
+        if (Boolean.FALSE.equals(result.get("isCompiled"))) {
+            status = ExecutionStatus.COMPILATION_ERROR;
+        } else if (Boolean.FALSE.equals(result.get("isExecutionSuccess"))) {
+            status = ExecutionStatus.RUNTIME_ERROR;
+        }
+
+        return ExecutionResult.builder()
+                .status(status)
+                .output(output)
+                .build();
+    }
+
+    private String getLanguageParam(String lang) {
+        return switch (lang.toLowerCase()) {
+            case "python" -> "python3";
+            case "java" -> "java";
+            case "c" -> "c";
+            case "cpp" -> "cpp14";
+            default -> throw new RuntimeException("Unsupported language");
+        };
+    }
+
+    private String getVersionIndex(String lang) {
+        return switch (lang.toLowerCase()) {
+            case "python" -> "3";
+            case "java" -> "4";
+            case "c" -> "5";
+            case "cpp" -> "3";
+            default -> "0";
+        };
+    }
+}
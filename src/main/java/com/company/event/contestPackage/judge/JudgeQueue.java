@@ -0,0 +1,103 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.submission.Submission;
+import com.company.event.contestPackage.submission.SubmissionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of judge workers. Submissions are saved as PENDING by the
+ * request thread and judged here in the background.
+ *
+ * Metrics: judge.queue.depth, judge.queue.wait, judge.execution.time
+ */
+@Slf4j
+@Component
+public class JudgeQueue {
+
+    private final JudgeService judgeService;
+    private final SubmissionRepository submissionRepository;
+    private final ThreadPoolExecutor workers;
+    private final Timer waitTimer;
+    private final Timer judgeTimer;
+
+    public JudgeQueue(JudgeService judgeService,
+                      SubmissionRepository submissionRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${judge.workers:4}") int workerCount,
+                      @Value("${judge.queue-capacity:500}") int queueCapacity) {
+
+        this.judgeService = judgeService;
+        this.submissionRepository = submissionRepository;
+
+        this.workers = new ThreadPoolExecutor(
+                workerCount,
+                workerCount,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("judge-worker-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("judge.queue.depth", workers, pool -> pool.getQueue().size())
+                .description("Submissions waiting for a judge worker")
+                .register(meterRegistry);
+
+        Gauge.builder("judge.workers.active", workers, ThreadPoolExecutor::getActiveCount)
+                .description("Judge workers currently judging")
+                .register(meterRegistry);
+
+        this.waitTimer = Timer.builder("judge.queue.wait")
+                .description("Time a submission spent queued before judging started")
+                .register(meterRegistry);
+
+        this.judgeTimer = Timer.builder("judge.execution.time")
+                .description("Time spent judging a submission")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public void enqueue(String submissionId) {
+
+        long enqueuedAt = System.nanoTime();
+
+        workers.execute(() -> {
+            waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            judgeTimer.record(() -> judgeService.judge(submissionId));
+        });
+    }
+
+    // Anything left PENDING by a previous run never got judged
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeuePending() {
+
+        for (Submission submission : submissionRepository.findAllByVerdict("PENDING")) {
+            try {
+                enqueue(submission.getId());
+            } catch (RejectedExecutionException e) {
+                log.warn("Judge queue full while re-queueing pending submissions");
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,279 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.contestPackage.leaderboard.LeaderboardStandings;
+import com.company.event.contestPackage.problem.Problem;
+import com.company.event.contestPackage.problem.Subtask;
+import com.company.event.contestPackage.problem.TestCase;
+import com.company.event.contestPackage.problem.TestCaseStore;
+import com.company.event.contestPackage.problem.TestSetDigests;
+import com.company.event.contestPackage.submission.Submission;
+import com.company.event.contestPackage.submission.SubmissionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Service
+public class JudgeService {
+
+    public static final Set<String> SUPPORTED_LANGUAGES = Set.of("python", "java", "c", "cpp");
+
+    private final SubmissionRepository submissionRepository;
+    private final EntityCache<Problem> problemCache;
+    private final CodeExecutor codeExecutor;
+    private final CompiledArtifactCache artifactCache;
+    private final VerdictCache verdictCache;
+    private final TestCaseStore testCaseStore;
+    private final LeaderboardStandings standings;
+
+    // One virtual thread per test case; the semaphores below do the actual limiting
+    private final ExecutorService caseExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Global cap on test cases executing at once, across all submissions
+    private final Semaphore executionPermits;
+
+    // Cap for a single submission, so one large problem cannot take every global permit
+    private final int maxCasesPerSubmission;
+
+    public JudgeService(SubmissionRepository submissionRepository,
+                        EntityCache<Problem> problemCache,
+                        CodeExecutor codeExecutor,
+                        CompiledArtifactCache artifactCache,
+                        VerdictCache verdictCache,
+                        TestCaseStore testCaseStore,
+                        LeaderboardStandings standings,
+                        @Value("${judge.max-concurrent-executions:16}") int maxConcurrentExecutions,
+                        @Value("${judge.max-cases-per-submission:4}") int maxCasesPerSubmission) {
+        this.submissionRepository = submissionRepository;
+        this.problemCache = problemCache;
+        this.codeExecutor = codeExecutor;
+        this.artifactCache = artifactCache;
+        this.verdictCache = verdictCache;
+        this.testCaseStore = testCaseStore;
+        this.standings = standings;
+        this.executionPermits = new Semaphore(maxConcurrentExecutions, true);
+        this.maxCasesPerSubmission = maxCasesPerSubmission;
+    }
+
+    // Runs on a judge worker thread, never on a request thread.
+    public void judge(String submissionId) {
+
+        Submission submission = submissionRepository.findById(submissionId).orElse(null);
+
+        // Deleted or already judged (e.g. re-queued twice after a restart)
+        if (submission == null || !"PENDING".equals(submission.getVerdict())) {
+            return;
+        }
+
+        try {
+            Problem problem = problemCache.findById(submission.getProblemId())
+                    .orElseThrow(() -> new IllegalStateException("Problem not found"));
+
+            String code = normalize(submission.getCode());
+            String language = submission.getLanguage();
+
+            // Problems saved before digests existed get one computed on the fly
+            String testSetDigest = problem.getTestSetDigest() != null
+                    ? problem.getTestSetDigest()
+                    : TestSetDigests.compute(problem);
+
+            TestCaseResult[] results =
+                    verdictCache.get(problem.getId(), testSetDigest, language, code);
+
+            if (results == null) {
+                results = execute(code, language, problem);
+                verdictCache.put(problem.getId(), testSetDigest, language, code, results);
+            }
+
+            applyResults(submission, results, problem.getSubtasks());
+
+        } catch (Exception e) {
+            log.error("Judging failed for submission {}", submissionId, e);
+            submission.setScore(0);
+            submission.setVerdict("INTERNAL_ERROR");
+        }
+
+        submissionRepository.save(submission);
+        standings.record(submission);
+    }
+
+    private TestCaseResult[] execute(String code, String language, Problem problem) throws Exception {
+
+        List<TestCase> testCases = problem.getTestCases();
+
+        // Compiled once per submission (or reused from the cache) and shared by every test case
+        CompiledProgram program = artifactCache.acquire(code, language);
+        try {
+            if (!program.isCompiled()) {
+                TestCaseResult[] results = new TestCaseResult[testCases.size()];
+                Arrays.fill(results, new TestCaseResult("COMPILATION_ERROR", null));
+                return results;
+            }
+            return runTestCases(program, problem);
+        } finally {
+            artifactCache.release(program);
+        }
+    }
+
+    private void applyResults(Submission submission, TestCaseResult[] results, List<Subtask> subtasks) {
+
+        int passedCount = 0;
+        int totalCases = results.length;
+
+        // Verdict of the first failing case in test case order
+        String verdict = "ACCEPTED";
+
+        for (TestCaseResult result : results) {
+            if (result.isPassed()) {
+                passedCount++;
+            } else if ("ACCEPTED".equals(verdict) && !SkipTracker.SKIPPED.equals(result.getVerdict())) {
+                verdict = result.getVerdict();
+            }
+        }
+
+        int score;
+        if ("COMPILATION_ERROR".equals(verdict)) {
+            // A compile error surfacing at run time fails the whole submission
+            score = 0;
+        } else if (subtasks != null && !subtasks.isEmpty()) {
+            // A subtask's points are earned only when every one of its cases passed
+            score = 0;
+            for (Subtask subtask : subtasks) {
+                boolean allPassed = subtask.getTestCaseIndexes().stream()
+                        .allMatch(index -> results[index].isPassed());
+                if (allPassed) {
+                    score += subtask.getPoints();
+                }
+            }
+        } else {
+            score = (int) ((passedCount / (double) totalCases) * 100);
+        }
+
+        submission.setScore(score);
+        submission.setVerdict(verdict);
+    }
+
+    // Fans the test cases out concurrently; results come back indexed by test case order
+    private TestCaseResult[] runTestCases(CompiledProgram program, Problem problem) throws Exception {
+
+        List<TestCase> testCases = problem.getTestCases();
+        OutputComparator comparator = OutputComparator.forProblem(problem);
+        SkipTracker tracker = new SkipTracker(
+                testCases.size(), problem.getJudgingPolicy(), problem.getSubtasks());
+
+        TestCaseResult[] results = new TestCaseResult[testCases.size()];
+        int first = 0;
+
+        // Executors that compile on every run get one probe case first, so a
+        // compile error is reported after a single call instead of N
+        if (!codeExecutor.compilesSeparately() && !testCases.isEmpty()) {
+            executionPermits.acquire();
+            try {
+                results[0] = runTestCase(program, testCases.get(0), comparator);
+            } finally {
+                executionPermits.release();
+            }
+            tracker.record(0, results[0]);
+            if ("COMPILATION_ERROR".equals(results[0].getVerdict())) {
+                for (int i = 1; i < results.length; i++) {
+                    results[i] = results[0];
+                }
+                return results;
+            }
+            first = 1;
+        }
+
+        Semaphore submissionPermits = new Semaphore(maxCasesPerSubmission, true);
+        List<Future<TestCaseResult>> futures = new ArrayList<>(testCases.size());
+
+        for (int i = first; i < testCases.size(); i++) {
+            int index = i;
+            TestCase testCase = testCases.get(i);
+            futures.add(caseExecutor.submit(() -> {
+                submissionPermits.acquire();
+                try {
+                    // Checked after waiting for a permit so earlier failures are seen
+                    if (tracker.shouldSkip(index)) {
+                        return new TestCaseResult(SkipTracker.SKIPPED, null);
+                    }
+                    executionPermits.acquire();
+                    try {
+                        TestCaseResult result = runTestCase(program, testCase, comparator);
+                        tracker.record(index, result);
+                        return result;
+                    } finally {
+                        executionPermits.release();
+                    }
+                } finally {
+                    submissionPermits.release();
+                }
+            }));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                results[first + i] = futures.get(i).get();
+            }
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return tracker.finish(results);
+    }
+
+    private TestCaseResult runTestCase(CompiledProgram program, TestCase testCase,
+                                       OutputComparator comparator) throws IOException {
+
+        // Loaded here, under the permits, so only the cases actually running are in memory.
+        // The output is compared while it is produced, without holding it in memory
+        CodeExecutor.StreamedRun<Boolean> run = codeExecutor.run(program,
+                normalize(testCaseStore.readInput(testCase)),
+                output -> comparator.matches(output, testCase, () -> testCaseStore.openExpectedOutput(testCase)));
+
+        ExecutionResult result = run.result();
+        if (result.getStatus() != ExecutionStatus.OK) {
+            return new TestCaseResult(result.getStatus().name(), result.getTimeMillis());
+        }
+
+        return new TestCaseResult(Boolean.TRUE.equals(run.value()) ? "ACCEPTED" : "WRONG_ANSWER",
+                result.getTimeMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        caseExecutor.shutdownNow();
+    }
+
+    // Single pass: \r\n and lone \r become \n, and the text always ends with a newline
+    private String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder normalized = new StringBuilder(text.length() + 1);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                normalized.append('\n');
+            } else {
+                normalized.append(c);
+            }
+        }
+        if (normalized.isEmpty() || normalized.charAt(normalized.length() - 1) != '\n') {
+            normalized.append('\n');
+        }
+        return normalized.toString();
+    }
+}
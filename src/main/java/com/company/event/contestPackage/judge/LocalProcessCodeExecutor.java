@@ -0,0 +1,567 @@
+package com.company.event.contestPackage.judge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compiles and runs submissions in child processes on the judge box itself.
+ *
+ * Wall-clock time is enforced here; CPU time, address space and file size
+ * are enforced by the shell's ulimit before exec'ing the program. Java gets
+ * its memory limit through -Xmx instead, since the JVM reserves far more
+ * virtual memory than it uses. Every compile and run gets its own session
+ * (setsid), and its whole process group is killed when it ends, so
+ * background children cannot outlive it or hold its output open.
+ *
+ * Isolation comes from judge.local.run-as-user: a dedicated unprivileged
+ * account that compiles and runs submissions through sudo, with a process
+ * limit (ulimit -u) against fork bombs. That account must not be able to
+ * read the application's directory, and the server's account needs a
+ * sudoers rule like "server ALL=(judge) NOPASSWD: ALL" with
+ * "Defaults:server !use_pty". Without it submissions run with the server's
+ * own privileges and can read its files and use its network: not a
+ * sandbox, only suitable for trusted code. There is no network or
+ * filesystem namespace isolation either way.
+ *
+ * Compiling happens in a scratch directory; the outputs are then copied into
+ * an artifact directory owned by this server and made read-only, which is
+ * what gets cached and reused. Every run gets a fresh scratch directory as
+ * its working directory, deleted afterwards, so nothing a program writes is
+ * seen by a later test case or submission.
+ *
+ * Requires setsid, gcc, g++, javac/java and python3 on the PATH.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "judge.executor", havingValue = "local")
+public class LocalProcessCodeExecutor implements CodeExecutor {
+
+    // 128 + SIGKILL / SIGXCPU
+    private static final int EXIT_KILLED = 137;
+    private static final int EXIT_CPU_LIMIT = 152;
+
+    // How long to wait for a killed process tree and its pipes
+    private static final Duration KILL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final Path workRoot;
+    private final long timeLimitMillis;
+    private final long compileTimeoutMillis;
+    private final int cpuLimitSeconds;
+    private final int memoryLimitMb;
+    private final int outputLimitBytes;
+    private final String runAsUser;
+    private final int processLimit;
+
+    public LocalProcessCodeExecutor(
+            @Value("${judge.local.work-dir:${java.io.tmpdir}}") String workDir,
+            @Value("${judge.local.time-limit-ms:2000}") long timeLimitMillis,
+            @Value("${judge.local.compile-timeout-ms:15000}") long compileTimeoutMillis,
+            @Value("${judge.local.cpu-limit-seconds:2}") int cpuLimitSeconds,
+            @Value("${judge.local.memory-limit-mb:256}") int memoryLimitMb,
+            @Value("${judge.local.output-limit-kb:1024}") int outputLimitKb,
+            @Value("${judge.local.run-as-user:}") String runAsUser,
+            @Value("${judge.local.process-limit:64}") int processLimit) {
+        this.workRoot = Path.of(workDir);
+        this.timeLimitMillis = timeLimitMillis;
+        this.compileTimeoutMillis = compileTimeoutMillis;
+        this.cpuLimitSeconds = cpuLimitSeconds;
+        this.memoryLimitMb = memoryLimitMb;
+        this.outputLimitBytes = outputLimitKb * 1024;
+        this.runAsUser = runAsUser.trim();
+        this.processLimit = processLimit;
+
+        if (this.runAsUser.isEmpty()) {
+            log.warn("judge.local.run-as-user is not set: submissions run unsandboxed with this server's privileges");
+        }
+    }
+
+    @Override
+    public CompiledProgram compile(String sourceCode, String language) {
+
+        Path buildDir = null;
+        Path artifactDir = null;
+        try {
+            buildDir = scratchDirectory("judge-build-");
+            String lang = language.toLowerCase();
+
+            Path source = Files.writeString(buildDir.resolve(sourceFile(lang)), sourceCode, StandardCharsets.UTF_8);
+            if (!runAsUser.isEmpty()) {
+                Files.setPosixFilePermissions(source, PosixFilePermissions.fromString("rw-r--r--"));
+            }
+
+            // Compiled as the sandbox user too: an #include can read any file the compiler can
+            ProcessOutcome compile = runProcess(sandboxed(compileCommand(lang), false, false),
+                    buildDir, "", compileTimeoutMillis, null);
+            if (compile.timedOut || compile.exitCode != 0) {
+                String message = compile.timedOut ? "Compilation timed out" : compile.stderr;
+                return new CompiledProgram(lang, sourceCode, null, message);
+            }
+
+            artifactDir = Files.createTempDirectory(workRoot, "judge-");
+            publishArtifact(buildDir, artifactDir);
+            return new CompiledProgram(lang, sourceCode, artifactDir, null);
+
+        } catch (IOException e) {
+            deleteQuietly(artifactDir);
+            throw new IllegalStateException("Local compilation failed", e);
+        } catch (InterruptedException e) {
+            deleteQuietly(artifactDir);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Local compilation interrupted", e);
+        } finally {
+            deleteScratch(buildDir);
+        }
+    }
+
+    // Copies the compiler's outputs into a directory the sandbox user can read but not change
+    private void publishArtifact(Path buildDir, Path artifactDir) throws IOException {
+
+        try (Stream<Path> files = Files.list(buildDir)) {
+            for (Path file : files.toList()) {
+                // Never follow a link the compile step may have planted
+                if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                    continue;
+                }
+                boolean executable = Files.getPosixFilePermissions(file, LinkOption.NOFOLLOW_LINKS)
+                        .contains(PosixFilePermission.OWNER_EXECUTE);
+                Path copy = Files.copy(file, artifactDir.resolve(file.getFileName()));
+                Files.setPosixFilePermissions(copy,
+                        PosixFilePermissions.fromString(executable ? "r-xr-xr-x" : "r--r--r--"));
+            }
+        }
+        Files.setPosixFilePermissions(artifactDir, PosixFilePermissions.fromString("rwxr-xr-x"));
+    }
+
+    // Writable by the sandbox user, if there is one
+    private Path scratchDirectory(String prefix) throws IOException {
+        Path dir = Files.createTempDirectory(workRoot, prefix);
+        if (!runAsUser.isEmpty()) {
+            Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwxrwxrwx"));
+        }
+        return dir;
+    }
+
+    // What the sandbox user created in there is only removable by that user
+    private void deleteScratch(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException | UncheckedIOException e) {
+            // Unreadable subdirectories; left to the sandbox user below
+        }
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS) || runAsUser.isEmpty()) {
+            return;
+        }
+        List<String> remove = new ArrayList<>(asSandboxUser());
+        remove.addAll(List.of("rm", "-rf", "--", dir.toAbsolutePath().toString()));
+        try {
+            Process remover = new ProcessBuilder(remove)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!remover.waitFor(KILL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                remover.destroyForcibly();
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up {}", dir, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The directory itself is ours
+        deleteQuietly(dir);
+    }
+
+    @Override
+    public ExecutionResult run(CompiledProgram program, String stdin) {
+
+        if (!program.isCompiled()) {
+            return ExecutionResult.builder()
+                    .status(ExecutionStatus.COMPILATION_ERROR)
+                    .output("")
+                    .error(program.getCompileError())
+                    .build();
+        }
+
+        ProcessOutcome run = execute(program, stdin, null);
+        return result(run);
+    }
+
+    // The comparator reads stdout straight from the pipe, so the output is never held in memory
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> StreamedRun<T> run(CompiledProgram program, String stdin, OutputReader<T> reader) throws IOException {
+
+        if (!program.isCompiled()) {
+            return new StreamedRun<>(run(program, stdin), null);
+        }
+
+        ProcessOutcome run = execute(program, stdin, reader);
+        ExecutionResult result = result(run);
+        if (result.getStatus() != ExecutionStatus.OK) {
+            return new StreamedRun<>(result, null);
+        }
+        if (run.streamError != null) {
+            throw run.streamError;
+        }
+        return new StreamedRun<>(result, (T) run.streamed);
+    }
+
+    private ProcessOutcome execute(CompiledProgram program, String stdin, OutputReader<?> reader) {
+        String lang = program.getLanguage();
+        Path runDir = null;
+        try {
+            runDir = scratchDirectory("judge-run-");
+            return runProcess(sandboxed(runCommand(lang, program.getArtifactDir()), true, !"java".equals(lang)),
+                    runDir, stdin, timeLimitMillis, reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Local execution failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Local execution interrupted", e);
+        } finally {
+            deleteScratch(runDir);
+        }
+    }
+
+    private ExecutionResult result(ProcessOutcome run) {
+        return ExecutionResult.builder()
+                .status(classify(run))
+                .output(run.stdout)
+                .error(run.stderr)
+                .exitCode(run.exitCode)
+                .timeMillis(run.timeMillis)
+                .build();
+    }
+
+    @Override
+    public void discard(CompiledProgram program) {
+        deleteQuietly(program.getArtifactDir());
+    }
+
+    private ExecutionStatus classify(ProcessOutcome run) {
+
+        if (run.outputExceeded) {
+            return ExecutionStatus.OUTPUT_LIMIT_EXCEEDED;
+        }
+        if (run.timedOut || run.exitCode == EXIT_CPU_LIMIT || run.exitCode == EXIT_KILLED) {
+            return ExecutionStatus.TIME_LIMIT_EXCEEDED;
+        }
+        if (run.exitCode != 0) {
+            String stderr = run.stderr;
+            if (stderr.contains("OutOfMemoryError")
+                    || stderr.contains("MemoryError")
+                    || stderr.contains("std::bad_alloc")) {
+                return ExecutionStatus.MEMORY_LIMIT_EXCEEDED;
+            }
+            return ExecutionStatus.RUNTIME_ERROR;
+        }
+        return ExecutionStatus.OK;
+    }
+
+    private String sourceFile(String lang) {
+        return switch (lang) {
+            case "c" -> "main.c";
+            case "cpp" -> "main.cpp";
+            case "java" -> "Main.java";
+            case "python" -> "main.py";
+            default -> throw new IllegalArgumentException("Unsupported language");
+        };
+    }
+
+    private List<String> compileCommand(String lang) {
+        return switch (lang) {
+            case "c" -> List.of("gcc", "-O2", "-std=c11", "-o", "main", "main.c", "-lm");
+            case "cpp" -> List.of("g++", "-O2", "-std=c++17", "-o", "main", "main.cpp");
+            case "java" -> List.of("javac", "-encoding", "UTF-8", "Main.java");
+            case "python" -> List.of("python3", "-m", "py_compile", "main.py");
+            default -> throw new IllegalArgumentException("Unsupported language");
+        };
+    }
+
+    // Run from the read-only artifact directory, with a scratch directory as cwd
+    private List<String> runCommand(String lang, Path artifactDir) {
+        Path dir = artifactDir.toAbsolutePath();
+        return switch (lang) {
+            case "c", "cpp" -> List.of(dir.resolve("main").toString());
+            case "java" -> List.of("java", "-Xmx" + memoryLimitMb + "m", "-Xss64m", "-cp", dir.toString(), "Main");
+            case "python" -> List.of("python3", dir.resolve("main.py").toString());
+            default -> throw new IllegalArgumentException("Unsupported language");
+        };
+    }
+
+    /**
+     * Wraps the command in its own session, as the sandbox user if one is
+     * configured, in a shell that applies ulimits and then exec's it.
+     * The process limit counts every process of the user, so it is only
+     * applied to the dedicated account.
+     */
+    private List<String> sandboxed(List<String> command, boolean runLimits, boolean limitAddressSpace) {
+
+        StringBuilder script = new StringBuilder();
+        if (!runAsUser.isEmpty()) {
+            script.append("ulimit -u ").append(processLimit).append("; ");
+        }
+        if (runLimits) {
+            script.append("ulimit -t ").append(cpuLimitSeconds).append("; ")
+                    .append("ulimit -f ").append(Math.max(1, outputLimitBytes / 1024)).append("; ");
+        }
+        if (limitAddressSpace) {
+            script.append("ulimit -v ").append(memoryLimitMb * 1024L).append("; ");
+        }
+        script.append("exec \"$@\"");
+
+        List<String> wrapped = new ArrayList<>(List.of("setsid"));
+        wrapped.addAll(asSandboxUser());
+        wrapped.addAll(List.of("/bin/sh", "-c", script.toString(), "sh"));
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    private List<String> asSandboxUser() {
+        return runAsUser.isEmpty() ? List.of() : List.of("sudo", "-n", "-u", runAsUser, "--");
+    }
+
+    /**
+     * setsid makes the started process the leader of a new process group,
+     * which every child joins unless it starts a session of its own; killing
+     * the group also reaches children re-parented after the program exited.
+     * Signalling the sandbox user's processes needs that user, hence sudo.
+     */
+    private void killProcessGroup(Process process) {
+
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+
+        List<String> kill = new ArrayList<>(asSandboxUser());
+        kill.addAll(List.of("kill", "-KILL", "--", "-" + process.pid()));
+        try {
+            Process killer = new ProcessBuilder(kill)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!killer.waitFor(KILL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                killer.destroyForcibly();
+            }
+        } catch (IOException e) {
+            log.warn("Could not kill process group {}", process.pid(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param reader consumes stdout as it is written; null collects it into the outcome instead
+     */
+    private ProcessOutcome runProcess(List<String> command,
+                                      Path workDir,
+                                      String stdin,
+                                      long timeoutMillis,
+                                      OutputReader<?> reader) throws IOException, InterruptedException {
+
+        long started = System.nanoTime();
+
+        Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .start();
+
+        BoundedInputStream stdoutStream = new BoundedInputStream(process.getInputStream(), outputLimitBytes, process);
+        BoundedInputStream stderrStream = new BoundedInputStream(process.getErrorStream(), outputLimitBytes, process);
+        StreamConsumer stdout = new StreamConsumer(stdoutStream, reader);
+        StreamConsumer stderr = new StreamConsumer(stderrStream, null);
+        Thread stdoutReader = Thread.ofVirtual().start(stdout);
+        Thread stderrReader = Thread.ofVirtual().start(stderr);
+
+        // Fed from its own thread so a program that never reads stdin cannot block us
+        Thread stdinWriter = Thread.ofVirtual().start(() -> {
+            try (OutputStream in = process.getOutputStream()) {
+                in.write(stdin.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException ignored) {
+                // Program exited or closed stdin early
+            }
+        });
+
+        boolean finished = process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (!finished) {
+            process.destroyForcibly();
+        }
+        // Also when it exited in time: a background child may still be running and holding stdout
+        killProcessGroup(process);
+        process.waitFor();
+
+        // Bounded, so a pipe held open by something that escaped the group cannot block this worker
+        boolean drained = await(stdoutReader, stdoutStream) & await(stderrReader, stderrStream);
+        if (!drained) {
+            log.warn("Output of process {} still open after it was killed; giving up on it", process.pid());
+            stdoutReader.interrupt();
+            stderrReader.interrupt();
+        }
+        if (!stdinWriter.join(KILL_TIMEOUT)) {
+            stdinWriter.interrupt();
+        }
+
+        ProcessOutcome outcome = new ProcessOutcome();
+        outcome.timedOut = !finished;
+        outcome.exitCode = process.exitValue();
+        outcome.stdout = reader == null ? stdout.text() : null;
+        outcome.stderr = stderr.text();
+        outcome.outputExceeded = stdoutStream.exceeded;
+        outcome.streamed = stdout.value;
+        outcome.streamError = drained ? stdout.error : new IOException("Program output was never closed");
+        outcome.timeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return outcome;
+    }
+
+    // Waits while the consumer makes progress or is busy with what it read; gives up
+    // once it has sat in read() for a whole timeout without getting a byte
+    private static boolean await(Thread consumer, BoundedInputStream stream) throws InterruptedException {
+        while (!consumer.join(KILL_TIMEOUT)) {
+            if (stream.stalled()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void deleteQuietly(Path dir) {
+        if (dir == null) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Could not clean up {}", dir, e);
+        }
+    }
+
+    private static class ProcessOutcome {
+        boolean timedOut;
+        boolean outputExceeded;
+        int exitCode;
+        String stdout;
+        String stderr;
+        long timeMillis;
+        // What the OutputReader returned, if one was given
+        Object streamed;
+        IOException streamError;
+    }
+
+    // Counts what the program writes; kills it once the limit is passed and reads as ended from then on
+    private static class BoundedInputStream extends InputStream {
+
+        private final InputStream in;
+        private final int limit;
+        private final Process process;
+        private volatile long count;
+        private volatile boolean exceeded;
+        private volatile boolean ended;
+        // Set while blocked reading the pipe, as opposed to busy with what was read
+        private volatile boolean reading;
+        private long countAtLastCheck = -1;
+
+        BoundedInputStream(InputStream in, int limit, Process process) {
+            this.in = in;
+            this.limit = limit;
+            this.process = process;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (exceeded || ended) {
+                return -1;
+            }
+            int read;
+            reading = true;
+            try {
+                read = in.read(b, off, len);
+            } finally {
+                reading = false;
+            }
+            if (read == -1) {
+                ended = true;
+                return -1;
+            }
+            long room = limit - count;
+            if (read > room) {
+                exceeded = true;
+                process.destroyForcibly();
+                count = limit;
+                return room > 0 ? (int) room : -1;
+            }
+            count += read;
+            return read;
+        }
+
+        // True if the consumer sat in read() without getting a byte since the last call
+        boolean stalled() {
+            boolean stalled = reading && !ended && count == countAtLastCheck;
+            countAtLastCheck = count;
+            return stalled;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Drains one output stream on its own thread, into a buffer or through an OutputReader
+    private static class StreamConsumer implements Runnable {
+
+        private final BoundedInputStream stream;
+        private final CodeExecutor.OutputReader<?> reader;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private volatile Object value;
+        private volatile IOException error;
+
+        StreamConsumer(BoundedInputStream stream, CodeExecutor.OutputReader<?> reader) {
+            this.stream = stream;
+            this.reader = reader;
+        }
+
+        @Override
+        public void run() {
+            try (InputStream in = stream) {
+                if (reader == null) {
+                    in.transferTo(buffer);
+                } else {
+                    value = reader.read(new InputStreamReader(in, StandardCharsets.UTF_8));
+                    // The reader may stop at the first mismatch; keep the pipe from filling up
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+            } catch (IOException e) {
+                // Also when the stream was closed because the process was killed
+                error = e;
+            }
+        }
+
+        String text() {
+            return buffer.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
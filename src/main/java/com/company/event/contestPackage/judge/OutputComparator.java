@@ -0,0 +1,40 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.problem.ComparisonMode;
+import com.company.event.contestPackage.problem.Problem;
+import com.company.event.contestPackage.problem.TestCase;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Checks a program's output against a test case. Implementations read the
+ * output as a stream and return at the first mismatch. The expected output
+ * is opened only if the comparator actually needs its text.
+ */
+public interface OutputComparator {
+
+    double DEFAULT_FLOAT_TOLERANCE = 1e-6;
+
+    boolean matches(Reader actual, TestCase testCase, ExpectedOutput expected) throws IOException;
+
+    @FunctionalInterface
+    interface ExpectedOutput {
+        Reader open() throws IOException;
+    }
+
+    static OutputComparator forProblem(Problem problem) {
+
+        ComparisonMode mode = problem.getComparisonMode() == null
+                ? ComparisonMode.EXACT
+                : problem.getComparisonMode();
+
+        return switch (mode) {
+            case EXACT -> new ExactOutputComparator();
+            case TOKEN -> new TokenOutputComparator();
+            case FLOAT -> new FloatOutputComparator(problem.getFloatTolerance() == null
+                    ? DEFAULT_FLOAT_TOLERANCE
+                    : problem.getFloatTolerance());
+        };
+    }
+}
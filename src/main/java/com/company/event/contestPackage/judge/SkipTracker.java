@@ -0,0 +1,98 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.problem.JudgingPolicy;
+import com.company.event.contestPackage.problem.Subtask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides which test cases can be skipped under a problem's judging policy.
+ *
+ * A case is only skipped when a failure with a lower index is already known
+ * (in the whole problem for FAIL_FAST, in every subtask containing the case
+ * for SKIP_SUBTASK_ON_FAILURE). The first failing case is therefore always
+ * executed, and {@link #finish} marks everything past it as SKIPPED whether
+ * or not it happened to run, so the outcome does not depend on timing.
+ */
+class SkipTracker {
+
+    static final String SKIPPED = "SKIPPED";
+
+    private final JudgingPolicy policy;
+    private final int[][] subtasksOfCase;
+    private final AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger[] firstFailureInSubtask;
+
+    SkipTracker(int caseCount, JudgingPolicy policy, List<Subtask> subtasks) {
+
+        this.policy = policy == null ? JudgingPolicy.RUN_ALL : policy;
+
+        List<Subtask> groups = subtasks == null ? List.of() : subtasks;
+        this.firstFailureInSubtask = new AtomicInteger[groups.size()];
+
+        List<List<Integer>> membership = new ArrayList<>(caseCount);
+        for (int i = 0; i < caseCount; i++) {
+            membership.add(new ArrayList<>());
+        }
+        for (int s = 0; s < groups.size(); s++) {
+            firstFailureInSubtask[s] = new AtomicInteger(Integer.MAX_VALUE);
+            for (Integer index : groups.get(s).getTestCaseIndexes()) {
+                membership.get(index).add(s);
+            }
+        }
+
+        this.subtasksOfCase = new int[caseCount][];
+        for (int i = 0; i < caseCount; i++) {
+            subtasksOfCase[i] = membership.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    boolean shouldSkip(int index) {
+        return switch (policy) {
+            case RUN_ALL -> false;
+            case FAIL_FAST -> firstFailure.get() < index;
+            case SKIP_SUBTASK_ON_FAILURE -> {
+                int[] owners = subtasksOfCase[index];
+                if (owners.length == 0) {
+                    yield false;
+                }
+                for (int s : owners) {
+                    if (firstFailureInSubtask[s].get() >= index) {
+                        yield false;
+                    }
+                }
+                yield true;
+            }
+        };
+    }
+
+    void record(int index, TestCaseResult result) {
+        if (result.isPassed()) {
+            return;
+        }
+        firstFailure.accumulateAndGet(index, Math::min);
+        for (int s : subtasksOfCase[index]) {
+            firstFailureInSubtask[s].accumulateAndGet(index, Math::min);
+        }
+    }
+
+    // Replaces results (executed or not) that the policy says should not count
+    TestCaseResult[] finish(TestCaseResult[] results) {
+
+        for (int i = 0; i < results.length; i++) {
+            if (!SKIPPED.equals(results[i].getVerdict())) {
+                record(i, results[i]);
+            }
+        }
+
+        TestCaseResult[] finished = results.clone();
+        for (int i = 0; i < finished.length; i++) {
+            if (shouldSkip(i)) {
+                finished[i] = new TestCaseResult(SKIPPED, null);
+            }
+        }
+        return finished;
+    }
+}
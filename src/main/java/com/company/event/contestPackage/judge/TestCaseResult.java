@@ -0,0 +1,17 @@
+package com.company.event.contestPackage.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TestCaseResult {
+    private String verdict; // ACCEPTED, WRONG_ANSWER, TIME_LIMIT_EXCEEDED, ...
+    private Long timeMillis;
+
+    public boolean isPassed() {
+        return "ACCEPTED".equals(verdict);
+    }
+}
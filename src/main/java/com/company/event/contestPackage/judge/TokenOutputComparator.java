@@ -0,0 +1,63 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.problem.TestCase;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Same sequence of whitespace-separated tokens; the amount and kind of
+ * whitespace between them does not matter.
+ */
+public class TokenOutputComparator implements OutputComparator {
+
+    @Override
+    public boolean matches(Reader actual, TestCase testCase, ExpectedOutput expected) throws IOException {
+
+        try (Reader expectedText = expected.open()) {
+            Tokenizer got = new Tokenizer(actual);
+            Tokenizer want = new Tokenizer(expectedText);
+
+            while (true) {
+                String a = got.next();
+                String e = want.next();
+                if (a == null || e == null) {
+                    return a == null && e == null;
+                }
+                if (!tokensMatch(a, e)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    protected boolean tokensMatch(String actual, String expected) {
+        return actual.equals(expected);
+    }
+
+    static class Tokenizer {
+
+        private final Reader in;
+        private final StringBuilder token = new StringBuilder();
+
+        Tokenizer(Reader in) {
+            this.in = in;
+        }
+
+        String next() throws IOException {
+            int c = in.read();
+            while (c != -1 && CanonicalOutput.isWhitespace(c)) {
+                c = in.read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            token.setLength(0);
+            while (c != -1 && !CanonicalOutput.isWhitespace(c)) {
+                token.append((char) c);
+                c = in.read();
+            }
+            return token.toString();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.company.event.contestPackage.judge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers per-test results for (problem, test-set digest, language,
+ * normalized source hash), so a byte-identical resubmission is judged
+ * without calling the executor at all.
+ *
+ * The test-set digest already changes whenever a problem's test cases do;
+ * ProblemService additionally drops a problem's entries on update/delete so
+ * stale results do not linger in the LRU.
+ *
+ * Only results that would come out the same on a rerun are kept: a runtime
+ * error or time limit can just as well come from a loaded judge box or a
+ * failing executor, so any such case leaves the whole submission uncached.
+ */
+@Component
+public class VerdictCache {
+
+    private static final Set<String> TRANSIENT_VERDICTS = Set.of(
+            ExecutionStatus.RUNTIME_ERROR.name(),
+            ExecutionStatus.TIME_LIMIT_EXCEEDED.name());
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<String, TestCaseResult[]> entries;
+
+    public VerdictCache(MeterRegistry meterRegistry,
+                        @Value("${judge.verdict-cache-size:1024}") int capacity) {
+        this.hits = Counter.builder("judge.verdict.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("judge.verdict.cache.misses").register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TestCaseResult[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public TestCaseResult[] get(String problemId, String testSetDigest, String language, String sourceCode) {
+
+        TestCaseResult[] cached;
+        synchronized (this) {
+            cached = entries.get(key(problemId, testSetDigest, language, sourceCode));
+        }
+
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.clone();
+    }
+
+    public void put(String problemId, String testSetDigest, String language, String sourceCode,
+                    TestCaseResult[] results) {
+        if (!isDeterministic(results)) {
+            return;
+        }
+        String key = key(problemId, testSetDigest, language, sourceCode);
+        synchronized (this) {
+            entries.put(key, results.clone());
+        }
+    }
+
+    static boolean isDeterministic(TestCaseResult[] results) {
+        for (TestCaseResult result : results) {
+            if (result == null || TRANSIENT_VERDICTS.contains(result.getVerdict())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void invalidateProblem(String problemId) {
+        String prefix = problemId + "|";
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private String key(String problemId, String testSetDigest, String language, String sourceCode) {
+        return problemId + "|" + testSetDigest + "|" + language.toLowerCase() + "|" + sourceHash(sourceCode);
+    }
+
+    // Line endings are already normalized by the judge; trailing whitespace never changes behavior
+    private String sourceHash(String sourceCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(sourceCode.stripTrailing().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.company.event.contestPackage.leaderboard;
+
+import com.company.event.contestPackage.submission.Submission;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Computes a contest's leaderboard entirely in Mongo, for contests that
+ * are over and not held in {@link LeaderboardStandings}. Only the ranked
+ * rows come back instead of every submission.
+ *
+ * The first stages only touch fields of contest_standings_idx, so the best
+ * score per (user, problem) is found from the index without reading the
+ * submissions' code. Same ordering and tie rules as the in-memory standings.
+ *
+ * Given several contests, a user's totals are summed over all of them.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardAggregation {
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        mongoTemplate.indexOps(Submission.class).ensureIndex(new Index()
+                .on("contestId", Sort.Direction.ASC)
+                .on("userId", Sort.Direction.ASC)
+                .on("problemId", Sort.Direction.ASC)
+                .on("score", Sort.Direction.DESC)
+                .on("submittedAt", Sort.Direction.ASC)
+                .named("contest_standings_idx"));
+    }
+
+    // Entries in rank order, with branch and course filled in but not their ranks
+    public List<LeaderboardEntry> compute(Collection<String> contestIds) {
+
+        // users._id is an ObjectId while userId is stored as a string
+        AggregationExpression userObjectId = context -> new Document("$convert",
+                new Document("input", "$_id")
+                        .append("to", "objectId")
+                        .append("onError", null)
+                        .append("onNull", null));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("contestId").in(contestIds)),
+                Aggregation.sort(Sort.by(
+                        Sort.Order.asc("contestId"),
+                        Sort.Order.asc("userId"),
+                        Sort.Order.asc("problemId"),
+                        Sort.Order.desc("score"),
+                        Sort.Order.asc("submittedAt"))),
+                Aggregation.project("contestId", "userId", "problemId", "score", "submittedAt").andExclude("_id"),
+                // Best score per problem; ties keep the earlier submission
+                Aggregation.group("contestId", "userId", "problemId")
+                        .first("score").as("best")
+                        .first("submittedAt").as("at"),
+                Aggregation.group("userId")
+                        .sum("best").as("totalScore")
+                        .sum(ConditionalOperators.when(Criteria.where("best").gt(0)).then(1).otherwise(0))
+                        .as("problemsSolved")
+                        .max("at").as("lastSubmissionTime"),
+                // Users without a submission time sort last, as in memory
+                Aggregation.addFields()
+                        .addField("noTime").withValue(ConditionalOperators
+                                .when(Criteria.where("lastSubmissionTime").is(null)).then(1).otherwise(0))
+                        .addField("userOid").withValue(userObjectId)
+                        .build(),
+                Aggregation.sort(Sort.by(
+                        Sort.Order.desc("totalScore"),
+                        Sort.Order.asc("noTime"),
+                        Sort.Order.asc("lastSubmissionTime"),
+                        Sort.Order.asc("_id"))),
+                Aggregation.lookup("users", "userOid", "_id", "user"),
+                Aggregation.project("totalScore", "problemsSolved", "lastSubmissionTime")
+                        .and("user.username").arrayElementAt(0).as("username")
+                        .and("user.rollNumber").arrayElementAt(0).as("rollNumber")
+                        .and("user.branch").arrayElementAt(0).as("branch")
+                        .and("user.course").arrayElementAt(0).as("course"));
+
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+
+        int rank = 0;
+        for (Document row : mongoTemplate.aggregate(
+                aggregation, mongoTemplate.getCollectionName(Submission.class), Document.class)) {
+
+            String username = row.getString("username");
+            String rollNumber = row.getString("rollNumber");
+            Date lastTime = row.getDate("lastSubmissionTime");
+
+            leaderboard.add(
+                    LeaderboardEntry.builder()
+                            .rank(++rank)
+                            .userId(row.getString("_id"))
+                            .username(username != null ? username : "Unknown")
+                            .rollNumber(rollNumber != null ? rollNumber : "N/A")
+                            .branch(row.getString("branch"))
+                            .course(row.getString("course"))
+                            .totalScore(((Number) row.get("totalScore")).intValue())
+                            .problemsSolved(((Number) row.get("problemsSolved")).intValue())
+                            .lastSubmissionTime(lastTime != null ? lastTime.toInstant() : null)
+                            .build()
+            );
+        }
+        return leaderboard;
+    }
+}
@@ -0,0 +1,223 @@
+package com.company.event.contestPackage.leaderboard;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.contestPackage.contest.Contest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes live contest standings over Server-Sent Events. A subscriber gets
+ * the full standings once ("snapshot"); after that, every coalesce window
+ * the contests whose standings version moved get one "delta" holding only
+ * the rows whose rank, score or other fields changed since the last
+ * broadcast. A burst of verdicts inside one window costs one diff and one
+ * send per subscriber.
+ *
+ * Metrics: leaderboard.push.subscribers, leaderboard.push.deltas, leaderboard.push.rows
+ */
+@Slf4j
+@Component
+public class LeaderboardBroadcaster {
+
+    private static final Duration KEEP_ALIVE = Duration.ofSeconds(15);
+
+    private final LeaderboardStandings standings;
+    private final EntityCache<Contest> contestCache;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Counter deltas;
+    private final Counter rows;
+
+    public LeaderboardBroadcaster(LeaderboardStandings standings,
+                                  EntityCache<Contest> contestCache,
+                                  MeterRegistry meterRegistry) {
+        this.standings = standings;
+        this.contestCache = contestCache;
+        this.deltas = Counter.builder("leaderboard.push.deltas").register(meterRegistry);
+        this.rows = Counter.builder("leaderboard.push.rows")
+                .description("Rows sent in deltas")
+                .register(meterRegistry);
+        Gauge.builder("leaderboard.push.subscribers", channels,
+                        c -> c.values().stream().mapToInt(ch -> ch.connections.size()).sum())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param endTime the contest's end; the stream is closed a little after it
+     */
+    public SseEmitter subscribe(String contestId, Instant endTime) {
+
+        long timeout = endTime == null ? 0L
+                : Math.max(0L, Duration.between(Instant.now(), endTime).toMillis()) + Duration.ofMinutes(5).toMillis();
+        Connection connection = new Connection(new SseEmitter(timeout));
+
+        // Joined inside compute, so the removal of the last subscriber cannot drop the channel in between
+        Channel channel = channels.compute(contestId, (id, existing) -> {
+            Channel joined = existing != null ? existing : new Channel();
+            joined.connections.add(connection);
+            return joined;
+        });
+
+        Runnable remove = () -> channels.computeIfPresent(contestId, (id, ch) -> {
+            ch.connections.remove(connection);
+            return ch.connections.isEmpty() ? null : ch;
+        });
+        connection.emitter.onCompletion(remove);
+        connection.emitter.onTimeout(remove);
+        connection.emitter.onError(e -> remove.run());
+
+        // Under the channel's lock no delta goes out in between; deltas before it skip this
+        // connection, and the snapshot taken afterwards already holds their rows
+        synchronized (channel) {
+            // Version first: the snapshot is at least that new, so no later change is missed
+            long version = standings.version(contestId);
+            List<LeaderboardEntry> snapshot = standings.entries(contestId);
+            if (channel.lastBroadcast == null) {
+                channel.lastBroadcast = index(snapshot);
+                channel.version = version;
+            }
+            connection.send("snapshot", snapshot);
+            connection.ready = true;
+        }
+        return connection.emitter;
+    }
+
+    // Finished contests no longer change: the final standings, then the stream ends
+    public SseEmitter finished(List<LeaderboardEntry> entries) {
+        Connection connection = new Connection(new SseEmitter());
+        connection.send("snapshot", entries);
+        connection.send("closed", "finished");
+        connection.emitter.complete();
+        return connection.emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.push.coalesce-ms:500}")
+    public void broadcast() {
+
+        Instant now = Instant.now();
+
+        channels.forEach((contestId, channel) -> {
+            synchronized (channel) {
+                publish(contestId, channel, now);
+            }
+        });
+    }
+
+    private void publish(String contestId, Channel channel, Instant now) {
+        try {
+            long version = standings.version(contestId);
+            if (version < 0) {
+                // Evicted: close the streams if the contest is gone or over, reload if it was only edited
+                Contest contest = contestCache.findById(contestId).orElse(null);
+                if (contest == null || (contest.getEndTime() != null && now.isAfter(contest.getEndTime()))) {
+                    String reason = contest == null ? "deleted" : "finished";
+                    channel.connections.forEach(c -> {
+                        c.send("closed", reason);
+                        c.emitter.complete();
+                    });
+                    return;
+                }
+                standings.entries(contestId);
+                version = standings.version(contestId);
+                channel.version = -1;
+            }
+            if (version == channel.version) {
+                if (now.isAfter(channel.lastSent.plus(KEEP_ALIVE))) {
+                    channel.lastSent = now;
+                    channel.connections.forEach(Connection::keepAlive);
+                }
+                return;
+            }
+
+            List<LeaderboardEntry> changed = channel.diff(standings.entries(contestId));
+            channel.version = version;
+            if (changed.isEmpty()) {
+                return;
+            }
+
+            channel.lastSent = now;
+            deltas.increment();
+            rows.increment(changed.size());
+            for (Connection connection : channel.connections) {
+                if (connection.ready) {
+                    connection.send("delta", changed);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Leaderboard broadcast for contest {} failed", contestId, e);
+        }
+    }
+
+    private static Map<String, LeaderboardEntry> index(List<LeaderboardEntry> entries) {
+        Map<String, LeaderboardEntry> byUser = new HashMap<>(entries.size() * 2);
+        for (LeaderboardEntry entry : entries) {
+            byUser.put(entry.getUserId(), entry);
+        }
+        return byUser;
+    }
+
+    // Guarded by its own lock, apart from the connection list
+    private static final class Channel {
+        final List<Connection> connections = new CopyOnWriteArrayList<>();
+        // What subscribers have been sent so far, by user
+        Map<String, LeaderboardEntry> lastBroadcast;
+        long version = -1;
+        Instant lastSent = Instant.now();
+
+        List<LeaderboardEntry> diff(List<LeaderboardEntry> current) {
+            List<LeaderboardEntry> changed = new ArrayList<>();
+            for (LeaderboardEntry entry : current) {
+                if (!entry.equals(lastBroadcast.get(entry.getUserId()))) {
+                    changed.add(entry);
+                }
+            }
+            lastBroadcast = index(current);
+            return changed;
+        }
+    }
+
+    private static final class Connection {
+        final SseEmitter emitter;
+        // Set once the snapshot is sent; read and written under the channel's lock
+        boolean ready;
+
+        Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void send(String name, Object payload) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(payload));
+            } catch (IOException e) {
+                log.debug("Leaderboard stream closed: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+
+        synchronized void keepAlive() {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.company.event.contestPackage.leaderboard;
 
+import com.company.event.ClubsEnum;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -19,4 +22,54 @@ public class LeaderboardController {
                 leaderboardService.getLeaderboard(contestId)
         );
     }
+
+    // branch or course narrows the page to that segment
+    @GetMapping("/{contestId}/page")
+    public ResponseEntity<LeaderboardPage> getPage(@PathVariable String contestId,
+                                                   @RequestParam(required = false) String branch,
+                                                   @RequestParam(required = false) String course,
+                                                   @RequestParam(defaultValue = "0") int offset,
+                                                   @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(
+                leaderboardService.getPage(contestId, branch, course, offset, limit)
+        );
+    }
+
+    @GetMapping("/{contestId}/top")
+    public ResponseEntity<LeaderboardPage> getTop(@PathVariable String contestId,
+                                                  @RequestParam(required = false) String branch,
+                                                  @RequestParam(required = false) String course,
+                                                  @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(
+                leaderboardService.getTop(contestId, branch, course, k)
+        );
+    }
+
+    // The user's row with n rows above and below
+    @GetMapping("/{contestId}/around/{userId}")
+    public ResponseEntity<LeaderboardPage> getAround(@PathVariable String contestId,
+                                                     @PathVariable String userId,
+                                                     @RequestParam(required = false) String branch,
+                                                     @RequestParam(required = false) String course,
+                                                     @RequestParam(defaultValue = "5") int n) {
+        return ResponseEntity.ok(
+                leaderboardService.getAround(contestId, branch, course, userId, n)
+        );
+    }
+
+    @GetMapping("/club/{clubId}")
+    public ResponseEntity<LeaderboardPage> getClubPage(@PathVariable ClubsEnum clubId,
+                                                       @RequestParam(required = false) String branch,
+                                                       @RequestParam(required = false) String course,
+                                                       @RequestParam(defaultValue = "0") int offset,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(
+                leaderboardService.getClubPage(clubId, branch, course, offset, limit)
+        );
+    }
+
+    @GetMapping(value = "/{contestId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable String contestId) {
+        return leaderboardService.stream(contestId);
+    }
 }
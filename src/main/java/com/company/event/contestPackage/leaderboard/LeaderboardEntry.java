@@ -9,10 +9,16 @@ import java.time.Instant;
 @NoArgsConstructor
 @Builder
 public class LeaderboardEntry {
+    private int rank;
     private String userId;
     private String username;
     private String rollNumber;
+    private String branch;
+    private String course;
     private int totalScore;
     private int problemsSolved;
     private Instant lastSubmissionTime;
+    // Rank among the same branch / course; null if the user has none
+    private Integer branchRank;
+    private Integer courseRank;
 }
@@ -0,0 +1,15 @@
+package com.company.event.contestPackage.leaderboard;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LeaderboardPage {
+    private int total;
+    private int offset;
+    private List<LeaderboardEntry> entries;
+}
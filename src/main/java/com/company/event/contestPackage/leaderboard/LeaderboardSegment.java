@@ -0,0 +1,43 @@
+package com.company.event.contestPackage.leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A slice of a leaderboard: the users of one branch or one course, ranked
+ * among themselves in the same order as the full standings.
+ */
+public record LeaderboardSegment(Type type, String value) {
+
+    public enum Type {
+        BRANCH,
+        COURSE
+    }
+
+    // Users without a branch or course are only ranked globally
+    static List<LeaderboardSegment> of(String branch, String course) {
+        List<LeaderboardSegment> segments = new ArrayList<>(2);
+        if (branch != null && !branch.isBlank()) {
+            segments.add(new LeaderboardSegment(Type.BRANCH, branch));
+        }
+        if (course != null && !course.isBlank()) {
+            segments.add(new LeaderboardSegment(Type.COURSE, course));
+        }
+        return segments;
+    }
+
+    boolean contains(LeaderboardEntry entry) {
+        return value.equals(type == Type.BRANCH ? entry.getBranch() : entry.getCourse());
+    }
+
+    Integer rankOf(LeaderboardEntry entry) {
+        return type == Type.BRANCH ? entry.getBranchRank() : entry.getCourseRank();
+    }
+
+    void setRank(LeaderboardEntry entry, int rank) {
+        switch (type) {
+            case BRANCH -> entry.setBranchRank(rank);
+            case COURSE -> entry.setCourseRank(rank);
+        }
+    }
+}
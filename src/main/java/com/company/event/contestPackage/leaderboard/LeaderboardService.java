@@ -1,123 +1,135 @@
 package com.company.event.contestPackage.leaderboard;
 
+import com.company.event.ClubsEnum;
+import com.company.event.cache.EntityCache;
 import com.company.event.contestPackage.contest.Contest;
 import com.company.event.contestPackage.contest.ContestRepository;
-import com.company.event.contestPackage.submission.Submission;
-import com.company.event.contestPackage.submission.SubmissionRepository;
-import com.company.event.user.User;
-import com.company.event.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
-import java.util.*;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class LeaderboardService {
 
-    private final SubmissionRepository submissionRepository;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final EntityCache<Contest> contestCache;
     private final ContestRepository contestRepository;
-    private final UserRepository userRepository;
+    private final LeaderboardStandings standings;
+    private final LeaderboardBroadcaster broadcaster;
 
+    // Live contests read the incrementally maintained standings; finished ones may come from an aggregation
     public List<LeaderboardEntry> getLeaderboard(String contestId) {
 
-        // Validate contest exists
-        Contest contest = contestRepository.findById(contestId)
-                .orElseThrow(() ->
-                        new ResponseStatusException(
-                                HttpStatus.NOT_FOUND,
-                                "Contest Not Found."
-                        ));
-
-        List<Submission> submissions =
-                submissionRepository.findAllByContestId(contestId);
-
-        // Map<userId, Map<problemId, bestSubmission>>
-        Map<String, Map<String, Submission>> bestSubmissions = new HashMap<>();
-
-        for (Submission sub : submissions) {
+        Contest contest = findContest(contestId);
 
-            bestSubmissions
-                    .computeIfAbsent(sub.getUserId(), k -> new HashMap<>());
+        if (isOver(contest)) {
+            return standings.finalEntries(contestId);
+        }
+        return standings.entries(contestId);
+    }
 
-            Map<String, Submission> userProblems =
-                    bestSubmissions.get(sub.getUserId());
+    // branch and course are optional filters; at most one may be given
+    public LeaderboardPage getPage(String contestId, String branch, String course, int offset, int limit) {
 
-            Submission existing =
-                    userProblems.get(sub.getProblemId());
+        Contest contest = findContest(contestId);
+        LeaderboardSegment segment = segmentOf(branch, course);
 
-            // Keep best score submission
-            if (existing == null ||
-                    sub.getScore() > existing.getScore()) {
+        checkOffset(offset);
+        checkSize(limit);
 
-                userProblems.put(sub.getProblemId(), sub);
-            }
-        }
+        return standings.page(contestId, isOver(contest), segment, offset, limit);
+    }
 
-        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+    public LeaderboardPage getTop(String contestId, String branch, String course, int k) {
+        return getPage(contestId, branch, course, 0, k);
+    }
 
-        for (String userId : bestSubmissions.keySet()) {
+    public LeaderboardPage getAround(String contestId, String branch, String course, String userId, int n) {
 
-            Map<String, Submission> userProblems =
-                    bestSubmissions.get(userId);
+        Contest contest = findContest(contestId);
+        LeaderboardSegment segment = segmentOf(branch, course);
 
-            int totalScore = 0;
-            int solved = 0;
-            Instant lastTime = null;
+        if (n < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window must not be negative");
+        }
+        checkSize(2 * n + 1);
 
-            for (Submission sub : userProblems.values()) {
+        return standings.around(contestId, isOver(contest), segment, userId, n);
+    }
 
-                totalScore += sub.getScore();
+    // Scores summed over every contest the club has run; cached until one of them changes
+    public LeaderboardPage getClubPage(ClubsEnum clubId, String branch, String course, int offset, int limit) {
 
-                if (sub.getScore() > 0)
-                    solved++;
+        LeaderboardSegment segment = segmentOf(branch, course);
 
-                Instant submittedAt = Instant.from(sub.getSubmittedAt());
+        checkOffset(offset);
+        checkSize(limit);
 
-                if (lastTime == null ||
-                        submittedAt.isAfter(lastTime)) {
+        List<String> contestIds = contestRepository.findAllByClubId(clubId).stream()
+                .map(Contest::getId)
+                .toList();
+        if (contestIds.isEmpty()) {
+            return new LeaderboardPage(0, offset, List.of());
+        }
+        return standings.combinedPage("club:" + clubId.name(), contestIds, segment, offset, limit);
+    }
 
-                    lastTime = submittedAt;
-                }
-            }
+    // A snapshot, then deltas of the changed rows until the contest ends
+    public SseEmitter stream(String contestId) {
 
-            User user = userRepository.findById(userId).orElse(null);
-            String username = user != null ? user.getUsername() : "Unknown";
-            String rollNumber = user != null ? user.getRollNumber() : "N/A";
+        Contest contest = findContest(contestId);
 
-            leaderboard.add(
-                    LeaderboardEntry.builder()
-                            .userId(userId)
-                            .username(username)
-                            .rollNumber(rollNumber)
-                            .totalScore(totalScore)
-                            .problemsSolved(solved)
-                            .lastSubmissionTime(lastTime)
-                            .build()
-            );
+        if (isOver(contest)) {
+            return broadcaster.finished(standings.finalEntries(contestId));
         }
+        return broadcaster.subscribe(contestId, contest.getEndTime());
+    }
 
-        // Sort:
-        leaderboard.sort((a, b) -> {
+    private Contest findContest(String contestId) {
+        return contestCache.findById(contestId)
+                .orElseThrow(() ->
+                        new ResponseStatusException(
+                                HttpStatus.NOT_FOUND,
+                                "Contest Not Found."
+                        ));
+    }
 
-            if (b.getTotalScore() != a.getTotalScore()) {
-                return Integer.compare(
-                        b.getTotalScore(),
-                        a.getTotalScore()
-                );
-            }
+    private static boolean isOver(Contest contest) {
+        return contest.getEndTime() != null && Instant.now().isAfter(contest.getEndTime());
+    }
 
-            // Handle null safety
-            if (a.getLastSubmissionTime() == null) return 1;
-            if (b.getLastSubmissionTime() == null) return -1;
+    private static LeaderboardSegment segmentOf(String branch, String course) {
+        boolean byBranch = branch != null && !branch.isBlank();
+        boolean byCourse = course != null && !course.isBlank();
+        if (byBranch && byCourse) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Filter by either branch or course, not both");
+        }
+        if (byBranch) {
+            return new LeaderboardSegment(LeaderboardSegment.Type.BRANCH, branch);
+        }
+        if (byCourse) {
+            return new LeaderboardSegment(LeaderboardSegment.Type.COURSE, course);
+        }
+        return null;
+    }
 
-            return a.getLastSubmissionTime()
-                    .compareTo(b.getLastSubmissionTime());
-        });
+    private static void checkOffset(int offset) {
+        if (offset < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset must not be negative");
+        }
+    }
 
-        return leaderboard;
+    private static void checkSize(int rows) {
+        if (rows < 1 || rows > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Between 1 and " + MAX_PAGE_SIZE + " rows can be requested");
+        }
     }
 }
@@ -0,0 +1,447 @@
+package com.company.event.contestPackage.leaderboard;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.contestPackage.contest.Contest;
+import com.company.event.contestPackage.submission.Submission;
+import com.company.event.contestPackage.submission.SubmissionRepository;
+import com.company.event.user.User;
+import com.company.event.user.UserRepository;
+import com.company.event.util.OrderStatisticTree;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory contest standings, kept current as submissions are created and
+ * judged instead of being rebuilt from every submission on each request.
+ * Per contest it holds the best submission per (user, problem), each
+ * user's totals, and the users in leaderboard order (score desc, then
+ * earliest last submission, users without one last).
+ *
+ * A contest is loaded from Mongo the first time it is read after a
+ * restart; until then updates for it are skipped, as the load will see
+ * them. The entry list handed to readers is built at most once per change.
+ *
+ * Contests that are over and not loaded are served from
+ * {@link LeaderboardAggregation} instead, cached until a late verdict for
+ * the contest arrives. A loaded contest is dropped once it has been over
+ * for leaderboard.retire-after, so finished contests do not keep their
+ * standings in memory for good.
+ *
+ * Pages, top-K and around-me reads use the order tree's positional
+ * lookups (O(log n + rows)). Next to the global order, each branch and
+ * course has its own order tree, so a segment's page or a user's rank
+ * within it is found the same way without scanning the contest. Users
+ * are looked up once, when they first appear, to place them in segments.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardStandings {
+
+    private static final Comparator<StandingKey> ORDER = Comparator
+            .comparingInt(StandingKey::totalScore).reversed()
+            .thenComparing(StandingKey::lastSubmissionTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(StandingKey::userId);
+
+    private final SubmissionRepository submissionRepository;
+    private final UserRepository userRepository;
+    private final LeaderboardAggregation aggregation;
+    private final EntityCache<Contest> contestCache;
+    private final Map<String, Standings> standings = new ConcurrentHashMap<>();
+    private final Map<String, FinalStandings> finished = new ConcurrentHashMap<>();
+    private final Map<String, CombinedStandings> combined = new ConcurrentHashMap<>();
+
+    @Value("${leaderboard.retire-after:10m}")
+    private Duration retireAfter;
+
+    // Called after a submission is saved with its current score
+    public void record(Submission submission) {
+        if (submission.getContestId() == null || submission.getUserId() == null) {
+            return;
+        }
+        finished.remove(submission.getContestId());
+        dropCombined(submission.getContestId());
+        standings.computeIfPresent(submission.getContestId(), (id, contest) -> {
+            contest.apply(submission);
+            return contest;
+        });
+    }
+
+    public List<LeaderboardEntry> entries(String contestId) {
+        Standings contest = standingsFor(contestId);
+        synchronized (contest) {
+            if (contest.entries == null) {
+                resolveUsers(contest);
+                contest.entries = contest.range(0, contest.order.size());
+            }
+            return contest.entries;
+        }
+    }
+
+    // For contests that are over: the in-memory standings if loaded, otherwise one aggregation
+    public List<LeaderboardEntry> finalEntries(String contestId) {
+        if (standings.containsKey(contestId)) {
+            return entries(contestId);
+        }
+        return finalFor(contestId).entries;
+    }
+
+    /**
+     * Positions [offset, offset + limit) of the whole leaderboard, or of one
+     * segment if given; over selects the same source as finalEntries.
+     */
+    public LeaderboardPage page(String contestId, boolean over, LeaderboardSegment segment, int offset, int limit) {
+
+        if (over && !standings.containsKey(contestId)) {
+            return finalFor(contestId).page(segment, offset, limit);
+        }
+
+        Standings contest = standingsFor(contestId);
+        synchronized (contest) {
+            resolveUsers(contest);
+            return contest.page(segment, offset, limit);
+        }
+    }
+
+    /**
+     * The user's row with up to n rows on either side, within the segment if given.
+     *
+     * @throws ResponseStatusException 404 if the user has no submission in the contest, or is not in the segment
+     */
+    public LeaderboardPage around(String contestId, boolean over, LeaderboardSegment segment, String userId, int n) {
+
+        if (over && !standings.containsKey(contestId)) {
+            FinalStandings contest = finalFor(contestId);
+            int position = requirePosition(contest.positionOf(segment, userId));
+            int from = Math.max(0, position - n);
+            return contest.page(segment, from, position + n + 1 - from);
+        }
+
+        Standings contest = standingsFor(contestId);
+        synchronized (contest) {
+            resolveUsers(contest);
+            int position = requirePosition(contest.positionOf(segment, userId));
+            int from = Math.max(0, position - n);
+            return contest.page(segment, from, position + n + 1 - from);
+        }
+    }
+
+    /**
+     * Totals over several contests, e.g. all of a club's, cached under key
+     * until a submission for one of them is recorded, one of them is evicted
+     * or the set of contests changes.
+     */
+    public LeaderboardPage combinedPage(String key, List<String> contestIds,
+                                        LeaderboardSegment segment, int offset, int limit) {
+
+        Set<String> ids = Set.copyOf(contestIds);
+        CombinedStandings cached = combined.compute(key, (k, current) ->
+                current != null && current.contestIds().equals(ids)
+                        ? current
+                        : new CombinedStandings(ids, new FinalStandings(aggregation.compute(ids))));
+        return cached.standings().page(segment, offset, limit);
+    }
+
+    /**
+     * Bumped on every change to a contest's standings, or -1 if the contest
+     * is not held in memory; lets readers skip work when nothing changed.
+     */
+    public long version(String contestId) {
+        Standings contest = standings.get(contestId);
+        if (contest == null) {
+            return -1;
+        }
+        synchronized (contest) {
+            return contest.version;
+        }
+    }
+
+    public void evict(String contestId) {
+        standings.remove(contestId);
+        finished.remove(contestId);
+        dropCombined(contestId);
+    }
+
+    // Deleted contests go too; their streams are closed by the broadcaster
+    @Scheduled(fixedDelayString = "${leaderboard.retire-check-ms:60000}")
+    public void retireFinished() {
+        Instant cutoff = Instant.now().minus(retireAfter);
+        for (String contestId : standings.keySet()) {
+            Contest contest = contestCache.findById(contestId).orElse(null);
+            if (contest == null || (contest.getEndTime() != null && contest.getEndTime().isBefore(cutoff))) {
+                standings.remove(contestId);
+            }
+        }
+    }
+
+    private void dropCombined(String contestId) {
+        combined.values().removeIf(c -> c.contestIds().contains(contestId));
+    }
+
+    private FinalStandings finalFor(String contestId) {
+        return finished.computeIfAbsent(contestId, id -> new FinalStandings(aggregation.compute(List.of(id))));
+    }
+
+    private static int requirePosition(int position) {
+        if (position < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User has no ranked submissions here");
+        }
+        return position;
+    }
+
+    private Standings standingsFor(String contestId) {
+        return standings.computeIfAbsent(contestId, this::load);
+    }
+
+    private Standings load(String contestId) {
+        Standings contest = new Standings();
+        for (Submission submission : submissionRepository.findStandingFieldsByContestId(contestId)) {
+            if (submission.getUserId() != null) {
+                contest.apply(submission);
+            }
+        }
+        return contest;
+    }
+
+    // One query for the users that joined since the last read; caller holds the contest's lock
+    private void resolveUsers(Standings contest) {
+        if (contest.unresolved.isEmpty()) {
+            return;
+        }
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(contest.unresolved.stream().map(row -> row.userId).toList())
+                .forEach(user -> users.put(user.getId(), user));
+        for (Row row : contest.unresolved) {
+            User user = users.get(row.userId);
+            row.username = user != null ? user.getUsername() : "Unknown";
+            row.rollNumber = user != null ? user.getRollNumber() : "N/A";
+            row.segments = user != null ? LeaderboardSegment.of(user.getBranch(), user.getCourse()) : List.of();
+            row.branch = user != null ? user.getBranch() : null;
+            row.course = user != null ? user.getCourse() : null;
+            contest.addToSegments(row);
+        }
+        contest.unresolved.clear();
+    }
+
+    private record CombinedStandings(Set<String> contestIds, FinalStandings standings) {
+    }
+
+    private record StandingKey(int totalScore, Instant lastSubmissionTime, String userId) {
+    }
+
+    private record Best(int score, Instant submittedAt) {
+    }
+
+    private static final class Row {
+        final String userId;
+        final Map<String, Best> bestByProblem = new HashMap<>();
+        StandingKey key;
+        int problemsSolved;
+        // Set once the user has been looked up
+        String username;
+        String rollNumber;
+        String branch;
+        String course;
+        List<LeaderboardSegment> segments;
+
+        Row(String userId) {
+            this.userId = userId;
+        }
+
+        LeaderboardEntry toEntry(int rank) {
+            return LeaderboardEntry.builder()
+                    .rank(rank)
+                    .userId(userId)
+                    .username(username)
+                    .rollNumber(rollNumber)
+                    .branch(branch)
+                    .course(course)
+                    .totalScore(key.totalScore())
+                    .problemsSolved(problemsSolved)
+                    .lastSubmissionTime(key.lastSubmissionTime())
+                    .build();
+        }
+    }
+
+    private static final class Standings {
+
+        private final Map<String, Row> rows = new HashMap<>();
+        private final OrderStatisticTree<StandingKey> order = new OrderStatisticTree<>(ORDER);
+        private final Map<LeaderboardSegment, OrderStatisticTree<StandingKey>> segments = new HashMap<>();
+        // Users not looked up yet, and so not in any segment
+        private final List<Row> unresolved = new ArrayList<>();
+
+        // Shared by every reader until the next change; null when stale
+        private List<LeaderboardEntry> entries;
+        private long version;
+
+        synchronized void apply(Submission submission) {
+
+            int score = submission.getScore() == null ? 0 : submission.getScore();
+            Row row = rows.get(submission.getUserId());
+            if (row == null) {
+                row = new Row(submission.getUserId());
+                rows.put(row.userId, row);
+                unresolved.add(row);
+            }
+            Best best = row.bestByProblem.get(submission.getProblemId());
+
+            // Ties keep the earlier submission
+            boolean better = best == null
+                    || score > best.score()
+                    || (score == best.score() && isBefore(submission.getSubmittedAt(), best.submittedAt()));
+            if (!better) {
+                return;
+            }
+            row.bestByProblem.put(submission.getProblemId(), new Best(score, submission.getSubmittedAt()));
+
+            int total = 0;
+            int solved = 0;
+            Instant last = null;
+            for (Best b : row.bestByProblem.values()) {
+                total += b.score();
+                if (b.score() > 0) {
+                    solved++;
+                }
+                if (b.submittedAt() != null && (last == null || b.submittedAt().isAfter(last))) {
+                    last = b.submittedAt();
+                }
+            }
+
+            if (row.key != null) {
+                order.remove(row.key);
+                removeFromSegments(row);
+            }
+            row.key = new StandingKey(total, last, row.userId);
+            row.problemsSolved = solved;
+            order.add(row.key);
+            addToSegments(row);
+            entries = null;
+            version++;
+        }
+
+        void addToSegments(Row row) {
+            if (row.segments == null) {
+                return;
+            }
+            for (LeaderboardSegment segment : row.segments) {
+                segments.computeIfAbsent(segment, s -> new OrderStatisticTree<>(ORDER)).add(row.key);
+            }
+        }
+
+        private void removeFromSegments(Row row) {
+            if (row.segments == null) {
+                return;
+            }
+            for (LeaderboardSegment segment : row.segments) {
+                OrderStatisticTree<StandingKey> tree = segments.get(segment);
+                tree.remove(row.key);
+                if (tree.size() == 0) {
+                    segments.remove(segment);
+                }
+            }
+        }
+
+        // Position within the segment, or the whole contest if segment is null; -1 if not in it
+        synchronized int positionOf(LeaderboardSegment segment, String userId) {
+            Row row = rows.get(userId);
+            if (row == null || (segment != null && (row.segments == null || !row.segments.contains(segment)))) {
+                return -1;
+            }
+            return segment == null ? order.rank(row.key) : segments.get(segment).rank(row.key);
+        }
+
+        synchronized LeaderboardPage page(LeaderboardSegment segment, int offset, int limit) {
+            if (segment == null) {
+                return new LeaderboardPage(order.size(), offset, range(offset, offset + limit));
+            }
+            OrderStatisticTree<StandingKey> tree = segments.get(segment);
+            if (tree == null) {
+                return new LeaderboardPage(0, offset, List.of());
+            }
+            List<LeaderboardEntry> list = new ArrayList<>();
+            for (StandingKey key : tree.range(offset, offset + limit)) {
+                list.add(toEntry(rows.get(key.userId()), order.rank(key) + 1));
+            }
+            return new LeaderboardPage(tree.size(), offset, Collections.unmodifiableList(list));
+        }
+
+        synchronized List<LeaderboardEntry> range(int from, int to) {
+            List<StandingKey> keys = order.range(from, to);
+            List<LeaderboardEntry> list = new ArrayList<>(keys.size());
+            int rank = Math.max(0, from);
+            for (StandingKey key : keys) {
+                list.add(toEntry(rows.get(key.userId()), ++rank));
+            }
+            return Collections.unmodifiableList(list);
+        }
+
+        private LeaderboardEntry toEntry(Row row, int rank) {
+            LeaderboardEntry entry = row.toEntry(rank);
+            if (row.segments != null) {
+                for (LeaderboardSegment segment : row.segments) {
+                    segment.setRank(entry, segments.get(segment).rank(row.key) + 1);
+                }
+            }
+            return entry;
+        }
+
+        private static boolean isBefore(Instant a, Instant b) {
+            return a != null && (b == null || a.isBefore(b));
+        }
+    }
+
+    // An aggregated leaderboard, split by segment and indexed by user for around-me lookups
+    private static final class FinalStandings {
+
+        private final List<LeaderboardEntry> entries;
+        private final Map<String, LeaderboardEntry> byUser = new HashMap<>();
+        private final Map<LeaderboardSegment, List<LeaderboardEntry>> segments = new HashMap<>();
+
+        // Entries in rank order; their segment ranks are filled in here
+        FinalStandings(List<LeaderboardEntry> entries) {
+            this.entries = Collections.unmodifiableList(entries);
+            for (LeaderboardEntry entry : entries) {
+                byUser.put(entry.getUserId(), entry);
+                for (LeaderboardSegment segment : LeaderboardSegment.of(entry.getBranch(), entry.getCourse())) {
+                    List<LeaderboardEntry> list = segments.computeIfAbsent(segment, s -> new ArrayList<>());
+                    list.add(entry);
+                    segment.setRank(entry, list.size());
+                }
+            }
+        }
+
+        int positionOf(LeaderboardSegment segment, String userId) {
+            LeaderboardEntry entry = byUser.get(userId);
+            if (entry == null) {
+                return -1;
+            }
+            if (segment == null) {
+                return entry.getRank() - 1;
+            }
+            return segment.contains(entry) ? segment.rankOf(entry) - 1 : -1;
+        }
+
+        LeaderboardPage page(LeaderboardSegment segment, int offset, int limit) {
+            List<LeaderboardEntry> list = segment == null ? entries : segments.getOrDefault(segment, List.of());
+            int from = Math.max(0, offset);
+            int to = Math.min(list.size(), offset + limit);
+            return new LeaderboardPage(list.size(), offset,
+                    from < to ? Collections.unmodifiableList(list.subList(from, to)) : List.of());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.event.contestPackage.problem;
+
+public enum ComparisonMode {
+    EXACT,  // identical after trimming leading/trailing whitespace
+    TOKEN,  // same whitespace-separated tokens
+    FLOAT   // same tokens, numbers equal within Problem.floatTolerance
+}
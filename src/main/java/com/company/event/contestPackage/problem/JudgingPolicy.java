@@ -0,0 +1,7 @@
+package com.company.event.contestPackage.problem;
+
+public enum JudgingPolicy {
+    RUN_ALL,                 // every test case is executed
+    FAIL_FAST,               // stop the whole problem at the first failing case
+    SKIP_SUBTASK_ON_FAILURE  // stop a subtask at its first failing case
+}
@@ -22,4 +22,9 @@ public class Problem {
     private String description;
     private String difficulty;
     private List<TestCase> testCases;
+    private List<Subtask> subtasks;
+    private JudgingPolicy judgingPolicy;
+    private ComparisonMode comparisonMode;
+    private Double floatTolerance;
+    private String testSetDigest;
 }
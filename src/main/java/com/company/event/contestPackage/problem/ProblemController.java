@@ -47,6 +47,17 @@ public class ProblemController {
         return new ResponseEntity<>(problemResponse,HttpStatus.OK);
     }
 
+    @GetMapping("/admin/getById/{id}")
+    public ResponseEntity<?> getWithTestData(@PathVariable String id) {
+        ProblemResponse problemResponse;
+        try {
+            problemResponse = problemService.getProblemWithTestData(id);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Problem not found.",HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(problemResponse,HttpStatus.OK);
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<?> delete(@PathVariable String id) {
         try {
@@ -21,4 +21,8 @@ public class ProblemRequest {
     private String difficulty;
     @NotBlank
     private List<TestCase> testCases;
+    private List<Subtask> subtasks;
+    private JudgingPolicy judgingPolicy;
+    private ComparisonMode comparisonMode;
+    private Double floatTolerance;
 }
@@ -17,4 +17,8 @@ public class ProblemResponse {
     private String description;
     private String difficulty;
     private List<TestCase> testCases;
+    private List<Subtask> subtasks;
+    private JudgingPolicy judgingPolicy;
+    private ComparisonMode comparisonMode;
+    private Double floatTolerance;
 }
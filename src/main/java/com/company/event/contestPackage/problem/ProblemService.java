@@ -1,5 +1,8 @@
 package com.company.event.contestPackage.problem;
 
+import com.company.event.cache.EntityCache;
+import com.company.event.contestPackage.judge.CanonicalOutput;
+import com.company.event.contestPackage.judge.VerdictCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -12,6 +15,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProblemService {
     private final ProblemRepository repository;
+    private final VerdictCache verdictCache;
+    private final TestCaseStore testCaseStore;
+    private final EntityCache<Problem> problemCache;
 
     public ProblemResponse insertProblem(ProblemRequest problemRequest) {
         Problem problem = new Problem();
@@ -19,9 +25,19 @@ public class ProblemService {
         problem.setDifficulty(problemRequest.getDifficulty());
         problem.setTitle(problemRequest.getTitle());
         problem.setTestCases(problemRequest.getTestCases());
+        problem.setSubtasks(problemRequest.getSubtasks());
+        problem.setJudgingPolicy(problemRequest.getJudgingPolicy());
+        problem.setComparisonMode(problemRequest.getComparisonMode());
+        problem.setFloatTolerance(problemRequest.getFloatTolerance());
+        validateTestCases(problem);
+        validateSubtasks(problem);
+        digestTestCases(problem);
+        problem.setTestSetDigest(TestSetDigests.compute(problem));
         try {
+            testCaseStore.externalize(problem.getTestCases());
             problem = repository.save(problem);
         } catch (Exception e) {
+            testCaseStore.delete(problem.getTestCases());
             throw new RuntimeException("Problem could not be saved");
         }
         ProblemResponse response = new ProblemResponse();
@@ -30,6 +46,10 @@ public class ProblemService {
         response.setDifficulty(problem.getDifficulty());
         response.setTitle(problem.getTitle());
         response.setTestCases(problem.getTestCases());
+        response.setSubtasks(problem.getSubtasks());
+        response.setJudgingPolicy(problem.getJudgingPolicy());
+        response.setComparisonMode(problem.getComparisonMode());
+        response.setFloatTolerance(problem.getFloatTolerance());
         return response;
     }
 
@@ -47,7 +67,11 @@ public class ProblemService {
             response.setDescription(problem.getDescription());
             response.setDifficulty(problem.getDifficulty());
             response.setTitle(problem.getTitle());
-            response.setTestCases(problem.getTestCases());
+            response.setTestCases(publicTestCases(problem.getTestCases()));
+            response.setSubtasks(problem.getSubtasks());
+            response.setJudgingPolicy(problem.getJudgingPolicy());
+            response.setComparisonMode(problem.getComparisonMode());
+            response.setFloatTolerance(problem.getFloatTolerance());
             responseList.add(response);
         }
         return responseList;
@@ -64,7 +88,30 @@ public class ProblemService {
         response.setDescription(problem.getDescription());
         response.setDifficulty(problem.getDifficulty());
         response.setTitle(problem.getTitle());
-        response.setTestCases(problem.getTestCases());
+        response.setTestCases(publicTestCases(problem.getTestCases()));
+        response.setSubtasks(problem.getSubtasks());
+        response.setJudgingPolicy(problem.getJudgingPolicy());
+        response.setComparisonMode(problem.getComparisonMode());
+        response.setFloatTolerance(problem.getFloatTolerance());
+        return response;
+    }
+
+    // Admin view for editing: hidden payloads are read back from GridFS
+    public ProblemResponse getProblemWithTestData(String id) {
+        Problem problem = repository.findById(id).orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "Problem not found"
+        ));
+        ProblemResponse response = new ProblemResponse();
+        response.setId(problem.getId());
+        response.setDescription(problem.getDescription());
+        response.setDifficulty(problem.getDifficulty());
+        response.setTitle(problem.getTitle());
+        response.setTestCases(testCaseStore.withPayloads(problem.getTestCases()));
+        response.setSubtasks(problem.getSubtasks());
+        response.setJudgingPolicy(problem.getJudgingPolicy());
+        response.setComparisonMode(problem.getComparisonMode());
+        response.setFloatTolerance(problem.getFloatTolerance());
         return response;
     }
 
@@ -75,6 +122,9 @@ public class ProblemService {
                 "Problem not found"
         ));
         repository.delete(problem);
+        testCaseStore.deleteLater(problem.getTestCases());
+        problemCache.invalidate(id);
+        verdictCache.invalidateProblem(id);
     }
 
     public ProblemResponse updateProblem(ProblemRequest problemRequest,String id) {
@@ -83,18 +133,103 @@ public class ProblemService {
                 HttpStatus.NOT_FOUND,
                 "Problem not found"
         ));
+        List<TestCase> previousTestCases = problem.getTestCases();
         problem.setDescription(problemRequest.getDescription());
         problem.setDifficulty(problemRequest.getDifficulty());
         problem.setTitle(problemRequest.getTitle());
         problem.setTestCases(problemRequest.getTestCases());
+        problem.setSubtasks(problemRequest.getSubtasks());
+        problem.setJudgingPolicy(problemRequest.getJudgingPolicy());
+        problem.setComparisonMode(problemRequest.getComparisonMode());
+        problem.setFloatTolerance(problemRequest.getFloatTolerance());
+        validateTestCases(problem);
+        validateSubtasks(problem);
+        digestTestCases(problem);
+        problem.setTestSetDigest(TestSetDigests.compute(problem));
         problem.setId(problem.getId());
-        problem = repository.save(problem);
+        try {
+            testCaseStore.externalize(problem.getTestCases());
+            problem = repository.save(problem);
+        } catch (Exception e) {
+            testCaseStore.delete(problem.getTestCases());
+            throw new RuntimeException("Problem could not be saved");
+        }
+        problemCache.invalidate(id);
+        // Judges holding the cached previous version may still be reading these
+        testCaseStore.deleteLater(previousTestCases);
+        verdictCache.invalidateProblem(id);
         ProblemResponse response = new ProblemResponse();
         response.setId(problem.getId());
         response.setDescription(problem.getDescription());
         response.setDifficulty(problem.getDifficulty());
         response.setTitle(problem.getTitle());
         response.setTestCases(problem.getTestCases());
+        response.setSubtasks(problem.getSubtasks());
+        response.setJudgingPolicy(problem.getJudgingPolicy());
+        response.setComparisonMode(problem.getComparisonMode());
+        response.setFloatTolerance(problem.getFloatTolerance());
         return response;
     }
+
+    // Payloads arrive inline; anything stored in GridFS is (re)written by TestCaseStore
+    private void validateTestCases(Problem problem) {
+        if (problem.getTestCases() == null) {
+            return;
+        }
+        for (TestCase testCase : problem.getTestCases()) {
+            if (testCase.getInput() == null || testCase.getExpectedOutput() == null) {
+                throw new IllegalArgumentException("Test case input and expected output are required");
+            }
+            // Never trust ids from the request, a failed save deletes whatever these point at
+            testCase.setInputFileId(null);
+            testCase.setExpectedOutputFileId(null);
+        }
+    }
+
+    private void validateSubtasks(Problem problem) {
+        if (problem.getSubtasks() == null) {
+            return;
+        }
+        int caseCount = problem.getTestCases() == null ? 0 : problem.getTestCases().size();
+        for (Subtask subtask : problem.getSubtasks()) {
+            if (subtask.getTestCaseIndexes() == null || subtask.getTestCaseIndexes().isEmpty()) {
+                throw new IllegalArgumentException("Subtask has no test cases");
+            }
+            for (Integer index : subtask.getTestCaseIndexes()) {
+                if (index == null || index < 0 || index >= caseCount) {
+                    throw new IllegalArgumentException("Subtask test case index out of range");
+                }
+            }
+        }
+    }
+
+    // Hashed once here so the judge can confirm exact matches without re-reading expected outputs
+    private void digestTestCases(Problem problem) {
+        if (problem.getTestCases() == null) {
+            return;
+        }
+        for (TestCase testCase : problem.getTestCases()) {
+            CanonicalOutput expected = CanonicalOutput.of(testCase.getExpectedOutput());
+            testCase.setExpectedOutputDigest(expected.getDigest());
+            testCase.setExpectedOutputLength(expected.getLength());
+            testCase.setInputDigest(TestSetDigests.inputDigest(testCase.getInput()));
+        }
+    }
+
+    // Hidden cases are listed (the UI counts them) but never with their data,
+    // even for problems saved before payloads moved to GridFS
+    private List<TestCase> publicTestCases(List<TestCase> testCases) {
+        if (testCases == null) {
+            return null;
+        }
+        List<TestCase> visible = new ArrayList<>(testCases.size());
+        for (TestCase testCase : testCases) {
+            if (testCase.isHidden()) {
+                visible.add(TestCase.builder().hidden(true).build());
+            } else {
+                visible.add(testCase);
+            }
+        }
+        return visible;
+    }
 }
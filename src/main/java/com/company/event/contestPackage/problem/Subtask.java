@@ -0,0 +1,15 @@
+package com.company.event.contestPackage.problem;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Subtask {
+    private String name;
+    private int points;
+    private List<Integer> testCaseIndexes; // positions in Problem.testCases
+}
@@ -6,12 +6,18 @@ import lombok.*;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class TestCase {
-    @NonNull
+    // Inline only for sample cases; hidden cases keep their payloads in GridFS
     private String input;
-    @NonNull
     private String expectedOutput;
     @NonNull
     private boolean hidden;
+    // Canonical form of expectedOutput, filled in by ProblemService on save
+    private String expectedOutputDigest;
+    private Long expectedOutputLength;
+    private String inputDigest;
+    // GridFS ids of the gzip-compressed payloads, see TestCaseStore
+    private String inputFileId;
+    private String expectedOutputFileId;
 }
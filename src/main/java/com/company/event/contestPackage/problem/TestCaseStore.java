@@ -0,0 +1,202 @@
+package com.company.event.contestPackage.problem;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps hidden test case payloads out of the problems collection. Each
+ * input and expected output is gzip-compressed into its own GridFS file and
+ * the test case keeps only the file ids and digests, so loading a Problem
+ * no longer drags its test data along. Sample cases stay inline because
+ * they are shown on the problem page anyway.
+ *
+ * Cases saved before this existed still carry their payloads inline and
+ * are read from there.
+ *
+ * Payloads replaced by an edit are only marked with a deleteAfter date and
+ * purged once it passes, since a judge that loaded the previous version
+ * from the cache may still be reading them.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestCaseStore {
+
+    private static final String CONTENT_TYPE = "application/gzip";
+    private static final String FILES_COLLECTION = "fs.files";
+    private static final String DELETE_AFTER = "metadata.deleteAfter";
+
+    private final GridFsTemplate gridFsTemplate;
+    private final MongoTemplate mongoTemplate;
+
+    // Longer than any judgement can take
+    @Value("${judge.test-data-retention:10m}")
+    private Duration retention;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        mongoTemplate.indexOps(FILES_COLLECTION).ensureIndex(new Index()
+                .on(DELETE_AFTER, Sort.Direction.ASC)
+                .sparse()
+                .named("delete_after_idx"));
+    }
+
+    // Moves hidden payloads into GridFS and clears them from the test cases
+    public void externalize(List<TestCase> testCases) {
+        if (testCases == null) {
+            return;
+        }
+        for (TestCase testCase : testCases) {
+            if (!testCase.isHidden()) {
+                testCase.setInputFileId(null);
+                testCase.setExpectedOutputFileId(null);
+                continue;
+            }
+            testCase.setInputFileId(store(testCase.getInput(), "input", testCase.getInputDigest()));
+            testCase.setExpectedOutputFileId(
+                    store(testCase.getExpectedOutput(), "expected", testCase.getExpectedOutputDigest()));
+            testCase.setInput(null);
+            testCase.setExpectedOutput(null);
+        }
+    }
+
+    public String readInput(TestCase testCase) {
+        if (testCase.getInputFileId() == null) {
+            return testCase.getInput();
+        }
+        try (InputStream in = open(testCase.getInputFileId())) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read test case input", e);
+        }
+    }
+
+    // Streamed straight from GridFS; the caller closes it
+    public Reader openExpectedOutput(TestCase testCase) throws IOException {
+        if (testCase.getExpectedOutputFileId() == null) {
+            return new StringReader(testCase.getExpectedOutput() == null ? "" : testCase.getExpectedOutput());
+        }
+        return new InputStreamReader(open(testCase.getExpectedOutputFileId()), StandardCharsets.UTF_8);
+    }
+
+    // Copies with the payloads filled back in, for admin editing only
+    public List<TestCase> withPayloads(List<TestCase> testCases) {
+        if (testCases == null) {
+            return null;
+        }
+        List<TestCase> loaded = new ArrayList<>(testCases.size());
+        for (TestCase testCase : testCases) {
+            TestCase copy = testCase.toBuilder().build();
+            if (testCase.getInputFileId() != null) {
+                copy.setInput(readInput(testCase));
+                try (Reader expected = openExpectedOutput(testCase)) {
+                    copy.setExpectedOutput(readAll(expected));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read test case output", e);
+                }
+            }
+            loaded.add(copy);
+        }
+        return loaded;
+    }
+
+    // Only for payloads nothing has read yet, e.g. after a failed save
+    public void delete(List<TestCase> testCases) {
+        List<ObjectId> ids = fileIds(testCases);
+        if (!ids.isEmpty()) {
+            gridFsTemplate.delete(new Query(Criteria.where("_id").in(ids)));
+        }
+    }
+
+    // Kept in the file's own metadata so a restart does not orphan them
+    public void deleteLater(List<TestCase> testCases) {
+        List<ObjectId> ids = fileIds(testCases);
+        if (!ids.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)),
+                    new Update().set(DELETE_AFTER, Date.from(Instant.now().plus(retention))),
+                    FILES_COLLECTION);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${judge.test-data-purge-ms:60000}")
+    public void purgeExpired() {
+        gridFsTemplate.delete(new Query(Criteria.where(DELETE_AFTER).lt(new Date())));
+    }
+
+    private List<ObjectId> fileIds(List<TestCase> testCases) {
+        List<ObjectId> ids = new ArrayList<>();
+        if (testCases == null) {
+            return ids;
+        }
+        for (TestCase testCase : testCases) {
+            if (testCase.getInputFileId() != null) {
+                ids.add(new ObjectId(testCase.getInputFileId()));
+            }
+            if (testCase.getExpectedOutputFileId() != null) {
+                ids.add(new ObjectId(testCase.getExpectedOutputFileId()));
+            }
+        }
+        return ids;
+    }
+
+    private String store(String text, String kind, String digest) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write((text == null ? "" : text).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress test case", e);
+        }
+        Document metadata = new Document("kind", kind).append("digest", digest);
+        ObjectId id = gridFsTemplate.store(new ByteArrayInputStream(compressed.toByteArray()),
+                "testcase-" + kind, CONTENT_TYPE, metadata);
+        return id.toHexString();
+    }
+
+    private InputStream open(String fileId) throws IOException {
+        GridFSFile file = gridFsTemplate.findOne(new Query(Criteria.where("_id").is(new ObjectId(fileId))));
+        if (file == null) {
+            throw new IOException("Test case file " + fileId + " is missing");
+        }
+        return new GZIPInputStream(gridFsTemplate.getResource(file).getInputStream());
+    }
+
+    private String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+}
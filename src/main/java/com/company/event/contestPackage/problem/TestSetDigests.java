@@ -0,0 +1,77 @@
+package com.company.event.contestPackage.problem;
+
+import com.company.event.contestPackage.judge.CanonicalOutput;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over everything that decides a problem's verdicts: test cases,
+ * subtasks, judging policy and comparison mode. Any change to an input, expected output,
+ * case order or grouping yields a different digest, which is what keys the
+ * judge's verdict cache.
+ *
+ * Test cases contribute their per-case digests rather than their text, so
+ * the digest is the same whether the payloads are inline or in GridFS.
+ */
+public final class TestSetDigests {
+
+    private TestSetDigests() {
+    }
+
+    public static String compute(Problem problem) {
+
+        MessageDigest digest = sha256();
+
+        if (problem.getTestCases() != null) {
+            for (TestCase testCase : problem.getTestCases()) {
+                update(digest, testCase.getInputDigest() != null
+                        ? testCase.getInputDigest()
+                        : inputDigest(testCase.getInput()));
+                update(digest, testCase.getExpectedOutputDigest() != null
+                        ? testCase.getExpectedOutputDigest()
+                        : CanonicalOutput.of(testCase.getExpectedOutput()).getDigest());
+                digest.update((byte) (testCase.isHidden() ? 1 : 0));
+            }
+        }
+
+        update(digest, problem.getJudgingPolicy() == null ? null : problem.getJudgingPolicy().name());
+        update(digest, problem.getComparisonMode() == null ? null : problem.getComparisonMode().name());
+        update(digest, String.valueOf(problem.getFloatTolerance()));
+
+        if (problem.getSubtasks() != null) {
+            for (Subtask subtask : problem.getSubtasks()) {
+                update(digest, subtask.getName());
+                update(digest, String.valueOf(subtask.getPoints()));
+                update(digest, String.valueOf(subtask.getTestCaseIndexes()));
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String inputDigest(String input) {
+        byte[] bytes = input == null ? new byte[0] : input.getBytes(StandardCharsets.UTF_8);
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    // Length-prefixed so ("ab", "c") and ("a", "bc") hash differently
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        digest.update(new byte[]{
+                (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length
+        });
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
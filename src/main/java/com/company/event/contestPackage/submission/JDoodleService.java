@@ -2,6 +2,7 @@ package com.company.event.contestPackage.submission;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -10,6 +11,7 @@ import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "judge.executor", havingValue = "jdoodle", matchIfMissing = true)
 public class JDoodleService {
 
     @Value("${jdoodle.client-id}")
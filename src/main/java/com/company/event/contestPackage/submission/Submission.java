@@ -19,7 +19,7 @@ public class Submission {
     private String problemId;
     private String code;
     private String language;
-    private String verdict;   // PENDING, ACCEPTED, WRONG_ANSWER
+    private String verdict;   // PENDING, ACCEPTED, WRONG_ANSWER, COMPILATION_ERROR, TIME_LIMIT_EXCEEDED, RUNTIME_ERROR, ..., INTERNAL_ERROR
     private Integer score;
     private Instant submittedAt;
 }
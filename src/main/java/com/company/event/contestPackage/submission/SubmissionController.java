@@ -18,7 +18,7 @@ public class SubmissionController {
     public ResponseEntity<SubmissionResponse> submitCode(
             @RequestBody SubmissionRequest submissionRequest) {
 
-        return ResponseEntity.ok(
+        return ResponseEntity.accepted().body(
                 submissionService.submitCode(submissionRequest)
         );
     }
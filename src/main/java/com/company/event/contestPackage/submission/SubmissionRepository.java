@@ -1,6 +1,7 @@
 package com.company.event.contestPackage.submission;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,8 +13,14 @@ public interface SubmissionRepository extends MongoRepository<Submission,String>
 
     List<Submission> findAllByContestId(String contestId);
 
+    // Only what LeaderboardStandings needs, not the code
+    @Query(value = "{ 'contestId': ?0 }", fields = "{ 'userId': 1, 'problemId': 1, 'score': 1, 'submittedAt': 1 }")
+    List<Submission> findStandingFieldsByContestId(String contestId);
+
     List<Submission> findAllByProblemId(String problemId);
 
+    List<Submission> findAllByVerdict(String verdict);
+
     boolean existsByUserIdAndProblemIdAndContestIdAndVerdict(
             String userId, String problemId, String contestId, String verdict);
 
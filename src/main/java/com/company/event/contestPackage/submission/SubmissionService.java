@@ -1,10 +1,11 @@
 package com.company.event.contestPackage.submission;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.contestPackage.contest.Contest;
-import com.company.event.contestPackage.contest.ContestRepository;
+import com.company.event.contestPackage.judge.JudgeQueue;
+import com.company.event.contestPackage.judge.JudgeService;
+import com.company.event.contestPackage.leaderboard.LeaderboardStandings;
 import com.company.event.contestPackage.problem.Problem;
-import com.company.event.contestPackage.problem.ProblemRepository;
-import com.company.event.contestPackage.problem.TestCase;
 import com.company.event.user.User;
 import com.company.event.user.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,20 +17,21 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
 public class SubmissionService {
     private final SubmissionRepository submissionRepository;
-    private final ProblemRepository problemRepository;
-    private final ContestRepository contestRepository;
+    private final EntityCache<Problem> problemCache;
+    private final EntityCache<Contest> contestCache;
     private final UserRepository userRepository;
-    private final JDoodleService jDoodleService;
+    private final JudgeQueue judgeQueue;
+    private final LeaderboardStandings standings;
 
     public SubmissionResponse submitCode(SubmissionRequest request) {
 
-        Contest contest = contestRepository.findById(request.getContestId())
+        Contest contest = contestCache.findById(request.getContestId())
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Contest not found"));
 
@@ -49,9 +51,18 @@ public class SubmissionService {
             );
         }
 
-        Problem problem = problemRepository.findById(request.getProblemId())
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Problem not found"));
+        if (request.getLanguage() == null ||
+                !JudgeService.SUPPORTED_LANGUAGES.contains(request.getLanguage().toLowerCase())) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Unsupported language"
+            );
+        }
+
+        if (problemCache.findById(request.getProblemId()).isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, "Problem not found");
+        }
 
         userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResponseStatusException(
@@ -79,38 +90,17 @@ public class SubmissionService {
 
         submission = submissionRepository.save(submission);
 
-        int passedCount = 0;
-        int totalCases = problem.getTestCases().size();
-
-        for (TestCase testCase : problem.getTestCases()) {
-
-            Map<String, Object> result = jDoodleService.executeCode(
-                    normalize(submission.getCode()),
-                    getLanguageParam(submission.getLanguage()),
-                    getVersionIndex(submission.getLanguage()),
-                    normalize(testCase.getInput())
-            );
-
-            String output = result.get("output") != null
-                    ? ((String) result.get("output")).trim()
-                    : "";
-
-            String expected = testCase.getExpectedOutput().trim();
-
-            if (output.equals(expected)) {
-                passedCount++;
-            }
+        // Judged in the background; the client polls GET /submission/{id} for the verdict
+        try {
+            judgeQueue.enqueue(submission.getId());
+        } catch (RejectedExecutionException e) {
+            submissionRepository.delete(submission);
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Judge queue is full. Please retry shortly.");
         }
-
-        int score = (int) ((passedCount / (double) totalCases) * 100);
-        String verdict = passedCount == totalCases
-                ? "ACCEPTED"
-                : "WRONG_ANSWER";
-
-        submission.setScore(score);
-        submission.setVerdict(verdict);
-
-        submission = submissionRepository.save(submission);
+        // Pending submissions count as 0, so the user shows up right away
+        standings.record(submission);
 
         return mapToResponse(submission);
     }
@@ -129,37 +119,6 @@ public class SubmissionService {
                 .build();
     }
 
-
-    private String getLanguageParam(String lang) {
-        return switch (lang.toLowerCase()) {
-            case "python" -> "python3";
-            case "java" -> "java";
-            case "c" -> "c";
-            case "cpp" -> "cpp14";
-            default -> throw new RuntimeException("Unsupported language");
-        };
-    }
-
-    private String getVersionIndex(String lang) {
-        return switch (lang.toLowerCase()) {
-            case "python" -> "3";
-            case "java" -> "4";
-            case "c" -> "5";
-            case "cpp" -> "3";
-            default -> "0";
-        };
-    }
-
-    private String normalize(String text) {
-        if (text == null) return "";
-        text = text.replace("\r\n", "\n");
-        text = text.replace("\r", "\n");
-        if (!text.endsWith("\n")) {
-            text += "\n";
-        }
-        return text;
-    }
-
     public List<SubmissionResponse> getSubmissions() {
         List<SubmissionResponse> submissions = new ArrayList<>();
         List<Submission> submissionList = submissionRepository.findAll();
@@ -215,7 +174,7 @@ public class SubmissionService {
     }
 
     public List<SubmissionResponse> getSubmissionByContestId(String contestId) {
-        Contest contest = contestRepository.findById(contestId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contest not found"));
+        Contest contest = contestCache.findById(contestId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contest not found"));
         List<SubmissionResponse> submissions = new ArrayList<>();
         List<Submission> submissionList = submissionRepository.findAllByContestId(contestId);
         for (Submission submission1 : submissionList) {
@@ -235,7 +194,7 @@ public class SubmissionService {
     }
 
     public List<SubmissionResponse> getSubmissionByProblemId(String problemId) {
-        Problem problem = problemRepository.findById(problemId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Problem not found"));
+        Problem problem = problemCache.findById(problemId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Problem not found"));
         List<SubmissionResponse> submissions = new ArrayList<>();
         List<Submission> submissionList = submissionRepository.findAllByProblemId(problemId);
         for (Submission submission1 : submissionList) {
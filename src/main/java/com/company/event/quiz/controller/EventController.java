@@ -1,7 +1,11 @@
 package com.company.event.quiz.controller;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.quiz.model.Event;
 import com.company.event.quiz.repository.EventRepository;
+import com.company.event.quiz.service.McqRankIndex;
+import com.company.event.quiz.service.McqScoreStats;
+import com.company.event.quiz.service.QuestionSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +20,10 @@ import java.util.List;
 public class EventController {
 
     private final EventRepository eventRepository;
+    private final EntityCache<Event> eventCache;
+    private final QuestionSnapshotCache questionSnapshots;
+    private final McqRankIndex rankIndex;
+    private final McqScoreStats scoreStats;
 
     // CREATE EVENT
     @PostMapping("/createEvent")
@@ -74,7 +82,9 @@ public class EventController {
                         event.setDurationInMinutes((int)Duration.between(event.getStartTime(),event.getEndTime()).toMinutes());
                     }
 
-                    return ResponseEntity.ok(eventRepository.save(event));
+                    Event saved = eventRepository.save(event);
+                    eventCache.invalidate(id);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -120,6 +130,10 @@ public class EventController {
             return ResponseEntity.notFound().build();
         }
         eventRepository.deleteById(id);
+        eventCache.invalidate(id);
+        questionSnapshots.evict(id);
+        rankIndex.evict(id);
+        scoreStats.evict(id);
         return ResponseEntity.ok("Event deleted successfully");
     }
 }
\ No newline at end of file
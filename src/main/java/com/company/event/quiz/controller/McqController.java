@@ -1,16 +1,30 @@
 package com.company.event.quiz.controller;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.quiz.dto.AdminEventAnalyticsDTO;
+import com.company.event.quiz.dto.McqResultDTO;
+import com.company.event.quiz.dto.RegradeStatusDTO;
 import com.company.event.quiz.dto.SubmitMcqRequestDTO;
+import com.company.event.quiz.model.Answer;
 import com.company.event.quiz.model.Event;
-import com.company.event.quiz.repository.EventRepository;
+import com.company.event.quiz.service.McqCountdownHub;
+import com.company.event.quiz.service.McqItemAnalysisService;
+import com.company.event.quiz.service.McqRegradeService;
 import com.company.event.quiz.service.McqService;
 import com.company.event.quiz.service.PdfExportService;
+import com.company.event.quiz.service.QuestionSnapshot;
+import com.company.event.user.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/mcq")
@@ -21,22 +35,76 @@ public class McqController {
 
     private final PdfExportService pdfExportService;
 
-    private final EventRepository eventRepository;
+    private final McqCountdownHub countdownHub;
 
+    private final McqItemAnalysisService itemAnalysisService;
 
-    @PostMapping("/start/{eventId}")
-    public ResponseEntity<?> start(@PathVariable String eventId,
-                                   @RequestHeader("studentId") String studentId) {
+    private final McqRegradeService regradeService;
+
+    private final EntityCache<Event> eventCache;
 
-        return ResponseEntity.ok(mcqService.startTest(studentId, eventId));
+
+    // The question list is rendered once per event; this only picks the encoding
+    @PostMapping("/start/{eventId}")
+    public ResponseEntity<byte[]> start(@PathVariable String eventId,
+                                        @RequestHeader("studentId") String studentId,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                        String acceptEncoding) {
+
+        QuestionSnapshot snapshot = mcqService.startTest(studentId, eventId);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzippedJson());
+        }
+        return response.body(snapshot.getJson());
     }
 
+    // Async: the request thread is released while the submit waits for its grading batch
     @PostMapping("/submit/{eventId}")
-    public ResponseEntity<?> submit(@PathVariable String eventId,
-                                    @RequestHeader("studentId") String studentId,
-                                    @RequestBody SubmitMcqRequestDTO request) {
+    public CompletableFuture<ResponseEntity<McqResultDTO>> submit(@PathVariable String eventId,
+                                                                  @RequestHeader("studentId") String studentId,
+                                                                  @RequestBody SubmitMcqRequestDTO request) {
+
+        return mcqService.submitTest(studentId, eventId, request).thenApply(ResponseEntity::ok);
+    }
+
+    // One question at a time; 202 because the write happens on the next flush
+    @PutMapping("/autosave/{eventId}")
+    public ResponseEntity<Void> autosave(@PathVariable String eventId,
+                                         @AuthenticationPrincipal User user,
+                                         @RequestBody Answer answer) {
+
+        mcqService.autosave(user.getId(), eventId, answer);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/autosave/{eventId}")
+    public ResponseEntity<Map<String, Integer>> getSavedAnswers(@PathVariable String eventId,
+                                                                @AuthenticationPrincipal User user) {
+
+        return ResponseEntity.ok(mcqService.getSavedAnswers(user.getId(), eventId));
+    }
+
+    // Issued to the signed-in student for their own session only
+    @PostMapping("/countdown/{eventId}/token")
+    public ResponseEntity<Map<String, String>> countdownToken(@PathVariable String eventId,
+                                                              @AuthenticationPrincipal User user) {
 
-        return ResponseEntity.ok(mcqService.submitTest(studentId, eventId, request));
+        return ResponseEntity.ok(Map.of("token", countdownHub.token(eventId, user.getId())));
+    }
+
+    // EventSource cannot send credentials, so the stream is opened with a token from the endpoint above
+    @GetMapping(value = "/countdown/{eventId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter countdown(@PathVariable String eventId,
+                                @RequestParam String token) {
+
+        return countdownHub.open(eventId, token);
     }
 
     @GetMapping("/remaining-time/{eventId}")
@@ -60,13 +128,33 @@ public class McqController {
 
 
 
+    @GetMapping("/admin/item-analysis/{eventId}")
+    public ResponseEntity<?> getItemAnalysis(
+            @PathVariable String eventId) {
+
+        return ResponseEntity.ok(
+                itemAnalysisService.analyze(eventId)
+        );
+    }
+
+    // Runs in the background; poll the GET for progress
+    @PostMapping("/admin/regrade/{eventId}")
+    public ResponseEntity<RegradeStatusDTO> startRegrade(@PathVariable String eventId) {
+        return ResponseEntity.accepted().body(regradeService.start(eventId));
+    }
+
+    @GetMapping("/admin/regrade/{eventId}")
+    public ResponseEntity<RegradeStatusDTO> getRegradeStatus(@PathVariable String eventId) {
+        return ResponseEntity.ok(regradeService.status(eventId));
+    }
+
     @GetMapping("/admin/analytics/pdf/{eventId}")
     public ResponseEntity<byte[]> exportAnalyticsPdf(@PathVariable String eventId) {
 
         AdminEventAnalyticsDTO analytics =
-                mcqService.getEventAnalytics(eventId);
+                mcqService.getEventAnalyticsForPdf(eventId);
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
         ByteArrayInputStream pdfStream =
@@ -1,10 +1,11 @@
 package com.company.event.quiz.controller;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.quiz.dto.CreateQuestionDTO;
 import com.company.event.quiz.model.Event;
 import com.company.event.quiz.model.McqQuestion;
-import com.company.event.quiz.repository.EventRepository;
 import com.company.event.quiz.repository.McqQuestionRepository;
+import com.company.event.quiz.service.QuestionSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,13 +20,14 @@ import java.util.List;
 public class QuestionController {
 
     private final McqQuestionRepository questionRepository;
-    private final EventRepository eventRepository;
+    private final EntityCache<Event> eventCache;
+    private final QuestionSnapshotCache questionSnapshots;
 
     @PostMapping("/{eventId}")
     public ResponseEntity<?> addQuestion(@PathVariable String eventId,
                                          @RequestBody CreateQuestionDTO request) {
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
 //        Event event = eventRepository.findById(eventId)
@@ -60,13 +62,15 @@ public class QuestionController {
                 request.getNegativeMarks() == null ? 0.0 : request.getNegativeMarks()
         );
 
-        return ResponseEntity.ok(questionRepository.save(question));
+        McqQuestion saved = questionRepository.save(question);
+        questionSnapshots.refresh(eventId);
+        return ResponseEntity.ok(saved);
     }
     @PostMapping("/bulk/{eventId}")
     public ResponseEntity<?> addBulkQuestions(@PathVariable String eventId,
                                               @RequestBody List<CreateQuestionDTO> questions) {
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
 //        Event event = eventRepository.findById(eventId)
@@ -107,7 +111,47 @@ public class QuestionController {
             questionList.add(q);
         }
 
-        return ResponseEntity.ok(questionRepository.saveAll(questionList));
+        List<McqQuestion> saved = questionRepository.saveAll(questionList);
+        questionSnapshots.refresh(eventId);
+        return ResponseEntity.ok(saved);
+    }
+
+    // Existing submissions keep their scores until the event is regraded (/api/mcq/admin/regrade)
+    @PutMapping("/{questionId}")
+    public ResponseEntity<?> updateQuestion(@PathVariable String questionId,
+                                            @RequestBody CreateQuestionDTO request) {
+
+        McqQuestion question = questionRepository.findById(questionId).orElse(null);
+        if (question == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (request.getQuestionText() == null ||
+                request.getOptions() == null ||
+                request.getOptions().size() < 2 ||
+                request.getCorrectOption() == null ||
+                request.getMarks() == null) {
+
+            return ResponseEntity.badRequest()
+                    .body("Invalid question format");
+        }
+
+        if (request.getCorrectOption() >= request.getOptions().size()) {
+            return ResponseEntity.badRequest()
+                    .body("Correct option index invalid");
+        }
+
+        question.setQuestionText(request.getQuestionText());
+        question.setOptions(request.getOptions());
+        question.setCorrectOption(request.getCorrectOption());
+        question.setMarks(request.getMarks());
+        question.setNegativeMarks(
+                request.getNegativeMarks() == null ? 0.0 : request.getNegativeMarks()
+        );
+
+        McqQuestion saved = questionRepository.save(question);
+        questionSnapshots.refresh(question.getEventId());
+        return ResponseEntity.ok(saved);
     }
 
     @GetMapping("/getQues/{eventId}")
@@ -117,10 +161,12 @@ public class QuestionController {
 
     @DeleteMapping("/{questionId}")
     public ResponseEntity<?> deleteQuestion(@PathVariable String questionId) {
-        if (!questionRepository.existsById(questionId)) {
+        McqQuestion question = questionRepository.findById(questionId).orElse(null);
+        if (question == null) {
             return ResponseEntity.notFound().build();
         }
         questionRepository.deleteById(questionId);
+        questionSnapshots.refresh(question.getEventId());
         return ResponseEntity.ok("Deleted");
     }
 }
@@ -20,4 +20,11 @@ public class AdminEventAnalyticsDTO {
     private double passPercentage;
 
     private List<TopPerformerDTO> topPerformers;
+
+    // Only filled by the live report; null in the PDF export
+    private Double medianScore;
+    private Double p90Score;
+    private Double stdDevScore;
+
+    private List<ScoreBucketDTO> distribution;
 }
@@ -0,0 +1,25 @@
+package com.company.event.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemAnalysisDTO {
+
+    private String questionId;
+    private String questionText;
+    private Integer correctOption;
+
+    private long correctCount;
+    private long blankCount;
+
+    // Share of submissions that got the question right; higher is easier
+    private double difficultyIndex;
+
+    // Correct share in the top 27% by score minus the bottom 27%, from -1 to 1
+    private double discriminationIndex;
+
+    // Times each option was picked, by option index
+    private long[] optionCounts;
+}
@@ -0,0 +1,19 @@
+package com.company.event.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemAnalysisReportDTO {
+
+    private String eventId;
+    private long submissions;
+
+    // Size of the upper and lower groups used for discrimination
+    private int groupSize;
+
+    private List<ItemAnalysisDTO> items;
+}
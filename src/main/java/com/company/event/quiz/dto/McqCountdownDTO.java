@@ -0,0 +1,16 @@
+package com.company.event.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class McqCountdownDTO {
+
+    private Instant serverTime;
+    private Instant deadline;
+    private long remainingSeconds;
+    private String status;
+}
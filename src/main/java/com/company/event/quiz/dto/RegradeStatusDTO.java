@@ -0,0 +1,23 @@
+package com.company.event.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class RegradeStatusDTO {
+
+    private String eventId;
+    private String status; // RUNNING, COMPLETED, FAILED
+
+    private long total;
+    private long processed;
+    private long changed;
+    private long failed;
+
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.company.event.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ScoreBucketDTO {
+
+    // Scores in [from, to); the last bucket also includes to
+    private double from;
+    private double to;
+    private long count;
+}
@@ -10,6 +10,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Document(collection = "mcq_submissions")
 @CompoundIndexes({
@@ -45,4 +46,7 @@ public class McqSubmission {
 
 
     private List<Answer> answers;
+
+    // Question id to selected option, written by McqAutosaveBuffer while IN_PROGRESS
+    private Map<String, Integer> autosavedAnswers;
 }
\ No newline at end of file
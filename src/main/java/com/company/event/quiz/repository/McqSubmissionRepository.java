@@ -2,6 +2,7 @@ package com.company.event.quiz.repository;
 
 import com.company.event.quiz.model.McqSubmission;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +16,8 @@ public interface McqSubmissionRepository extends MongoRepository<McqSubmission,
     List<McqSubmission> findByStudentId(String studentId);
 
     List<McqSubmission> findByEventIdOrderByTotalScoreDescSubmittedAtAsc(String eventId);
+
+    // Only what McqRankIndex and McqScoreStats need, not the answers
+    @Query(value = "{ 'eventId': ?0 }", fields = "{ 'studentId': 1, 'status': 1, 'totalScore': 1, 'submittedAt': 1 }")
+    List<McqSubmission> findRankFieldsByEventId(String eventId);
 }
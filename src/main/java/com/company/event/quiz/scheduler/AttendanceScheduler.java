@@ -1,11 +1,14 @@
 package com.company.event.quiz.scheduler;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.quiz.model.Event;
 import com.company.event.quiz.model.EventRegistration;
 import com.company.event.quiz.model.McqSubmission;
 import com.company.event.quiz.repository.EventRegistrationRepository;
 import com.company.event.quiz.repository.EventRepository;
 import com.company.event.quiz.repository.McqSubmissionRepository;
+import com.company.event.quiz.service.McqRankIndex;
+import com.company.event.quiz.service.McqScoreStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -19,8 +22,11 @@ import java.util.List;
 public class AttendanceScheduler {
 
     private final EventRepository eventRepository;
+    private final EntityCache<Event> eventCache;
     private final McqSubmissionRepository submissionRepository;
     private final EventRegistrationRepository registrationRepository;
+    private final McqRankIndex rankIndex;
+    private final McqScoreStats scoreStats;
 
     @Scheduled(cron = "0 */2 * * * ?")
     public void markAbsentStudents() {
@@ -61,12 +67,15 @@ public class AttendanceScheduler {
                         absent.setSubmittedAt(now);
 
                         submissionRepository.save(absent);
+                        rankIndex.record(event.getId(), studentId, 0.0, now);
+                        scoreStats.record(event.getId(), studentId, "ABSENT", 0.0);
                     }
                 }
 
                 // Mark attendance processed
                 event.setAttendanceProcessed(true);
                 eventRepository.save(event);
+                eventCache.invalidate(event.getId());
             }
         }
     }
@@ -0,0 +1,280 @@
+package com.company.event.quiz.scheduler;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.model.Answer;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.model.McqSubmission;
+import com.company.event.quiz.service.McqAutosaveBuffer;
+import com.company.event.quiz.service.McqCountdownHub;
+import com.company.event.quiz.service.McqGradingPipeline;
+import com.company.event.quiz.service.McqRankIndex;
+import com.company.event.quiz.service.McqScoreStats;
+import com.company.event.quiz.service.QuestionSnapshot;
+import com.company.event.quiz.service.QuestionSnapshotCache;
+import com.company.event.util.TimingWheel;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grades MCQ sessions whose time ran out without a submit. Every session is
+ * put on a timing wheel at its deadline (start time + event duration, plus
+ * a grace period so the client's own final submit normally wins); each
+ * tick only the sessions due in that second are loaded, graded with the
+ * answers autosaved so far and written back in one bulk update as
+ * AUTO_SUBMITTED.
+ *
+ * Sessions are scheduled when they start, and on startup every ungraded
+ * session is loaded once through the status/startTime index.
+ */
+@Slf4j
+@Component
+public class McqAutoSubmitSweeper {
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCache<Event> eventCache;
+    private final QuestionSnapshotCache questionSnapshots;
+    private final McqRankIndex rankIndex;
+    private final McqScoreStats scoreStats;
+    private final McqAutosaveBuffer autosaveBuffer;
+    private final McqCountdownHub countdownHub;
+    private final Duration grace;
+    private final int batchSize;
+    private final TimingWheel<String> wheel;
+    private final Counter autoSubmitted;
+
+    public McqAutoSubmitSweeper(MongoTemplate mongoTemplate,
+                                EntityCache<Event> eventCache,
+                                QuestionSnapshotCache questionSnapshots,
+                                McqRankIndex rankIndex,
+                                McqScoreStats scoreStats,
+                                McqAutosaveBuffer autosaveBuffer,
+                                McqCountdownHub countdownHub,
+                                MeterRegistry meterRegistry,
+                                @Value("${mcq.auto-submit.grace-seconds:30}") long graceSeconds,
+                                @Value("${mcq.auto-submit.batch-size:500}") int batchSize) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.eventCache = eventCache;
+        this.questionSnapshots = questionSnapshots;
+        this.rankIndex = rankIndex;
+        this.scoreStats = scoreStats;
+        this.autosaveBuffer = autosaveBuffer;
+        this.countdownHub = countdownHub;
+        this.grace = Duration.ofSeconds(graceSeconds);
+        this.batchSize = batchSize;
+
+        // One-second ticks, one hour per turn of the wheel
+        this.wheel = new TimingWheel<>(Duration.ofSeconds(1), 3600, Instant.now());
+
+        this.autoSubmitted = Counter.builder("mcq.autosubmit.sessions")
+                .description("Expired sessions graded by the sweeper")
+                .register(meterRegistry);
+        Gauge.builder("mcq.autosubmit.scheduled", wheel, TimingWheel::size)
+                .register(meterRegistry);
+    }
+
+    public void schedule(McqSubmission session, Event event) {
+        Instant deadline = deadlineOf(session, event);
+        if (deadline != null) {
+            wheel.schedule(session.getId(), deadline.plus(grace));
+        }
+    }
+
+    // Submitted by the student; nothing left to do at the deadline
+    public void cancel(String sessionId) {
+        wheel.cancel(sessionId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadUngradedSessions() {
+
+        mongoTemplate.indexOps(McqSubmission.class).ensureIndex(new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("startTime", Sort.Direction.ASC)
+                .named("status_start_idx"));
+
+        Query query = new Query(McqGradingPipeline.ungraded());
+        query.fields().include("eventId", "startTime");
+
+        int count = 0;
+        for (McqSubmission session : mongoTemplate.find(query, McqSubmission.class)) {
+            Event event = eventCache.findById(session.getEventId()).orElse(null);
+            if (event != null) {
+                schedule(session, event);
+                count++;
+            }
+        }
+        log.info("Scheduled {} ungraded MCQ sessions for auto-submit", count);
+    }
+
+    @Scheduled(fixedDelayString = "${mcq.auto-submit.tick-ms:1000}")
+    public void tick() {
+        List<String> due = wheel.advance(Instant.now());
+        if (due.isEmpty()) {
+            return;
+        }
+        // The due sessions are graded from their autosaved answers, so those must be written first
+        autosaveBuffer.flushAll();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<String> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                autoSubmit(batch);
+            } catch (RuntimeException e) {
+                // Already taken off the wheel; try them again on the next tick
+                log.error("Auto-submit batch of {} sessions failed, retrying", batch.size(), e);
+                Instant now = Instant.now();
+                batch.forEach(sessionId -> wheel.schedule(sessionId, now));
+            }
+        }
+    }
+
+    private void autoSubmit(List<String> sessionIds) {
+
+        Instant now = Instant.now();
+
+        // Sessions submitted since they were scheduled simply do not match
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("_id").in(sessionIds), McqGradingPipeline.ungraded()));
+        List<McqSubmission> sessions = mongoTemplate.find(query, McqSubmission.class);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, McqSubmission.class);
+        List<McqSubmission> written = new ArrayList<>();
+        List<QuestionSnapshot.Grade> grades = new ArrayList<>();
+        List<Instant> deadlines = new ArrayList<>();
+
+        for (McqSubmission session : sessions) {
+            Event event = eventCache.findById(session.getEventId()).orElse(null);
+            Instant deadline = deadlineOf(session, event);
+            if (deadline == null) {
+                continue;
+            }
+            // The event's duration was extended after this session was scheduled
+            if (deadline.plus(grace).isAfter(now)) {
+                wheel.schedule(session.getId(), deadline.plus(grace));
+                continue;
+            }
+
+            QuestionSnapshot.AnswerKey answerKey = questionSnapshots.get(session.getEventId()).getAnswerKey();
+            List<Answer> answers = McqGradingPipeline.merge(session.getAutosavedAnswers(),
+                    session.getAnswers() == null ? List.of() : session.getAnswers(), answerKey);
+            QuestionSnapshot.Grade grade = answerKey.gradeIgnoringUnknown(answers);
+
+            bulk.updateOne(
+                    new Query(new Criteria().andOperator(
+                            Criteria.where("_id").is(session.getId()), McqGradingPipeline.ungraded())),
+                    new Update()
+                            .set("status", "AUTO_SUBMITTED")
+                            .set("submittedAt", deadline)
+                            .set("answers", answers)
+                            .set("totalScore", grade.totalScore())
+                            .set("correctCount", grade.correct())
+                            .set("wrongCount", grade.wrong()));
+
+            written.add(session);
+            grades.add(grade);
+            deadlines.add(deadline);
+        }
+
+        if (written.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        int matched;
+        try {
+            matched = bulk.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+            }
+            matched = e.getResult().getMatchedCount();
+        }
+
+        Set<Integer> lost = matched == written.size() - failed.size()
+                ? Set.of()
+                : lostRaces(written, deadlines, failed);
+
+        for (int i = 0; i < written.size(); i++) {
+            McqSubmission session = written.get(i);
+            if (failed.contains(i)) {
+                // Try again on the next tick
+                wheel.schedule(session.getId(), now);
+                continue;
+            }
+            // The client's own submit got there first and keeps its score
+            if (lost.contains(i)) {
+                continue;
+            }
+            rankIndex.record(session.getEventId(), session.getStudentId(),
+                    grades.get(i).totalScore(), deadlines.get(i));
+            scoreStats.record(session.getEventId(), session.getStudentId(),
+                    "AUTO_SUBMITTED", grades.get(i).totalScore());
+            countdownHub.submitted(session.getEventId(), session.getStudentId(), "AUTO_SUBMITTED");
+            autoSubmitted.increment();
+        }
+    }
+
+    /**
+     * The bulk result only has a total, so the sessions are read back to find
+     * which guards missed: ours are AUTO_SUBMITTED at their deadline.
+     */
+    private Set<Integer> lostRaces(List<McqSubmission> written, List<Instant> deadlines, Set<Integer> failed) {
+
+        Query query = new Query(Criteria.where("_id").in(written.stream().map(McqSubmission::getId).toList()));
+        query.fields().include("status", "submittedAt");
+
+        Map<String, McqSubmission> current = new HashMap<>();
+        for (McqSubmission session : mongoTemplate.find(query, McqSubmission.class)) {
+            current.put(session.getId(), session);
+        }
+
+        Set<Integer> lost = new HashSet<>();
+        for (int i = 0; i < written.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            McqSubmission session = current.get(written.get(i).getId());
+            // Mongo keeps millisecond precision
+            boolean ours = session != null
+                    && "AUTO_SUBMITTED".equals(session.getStatus())
+                    && session.getSubmittedAt() != null
+                    && session.getSubmittedAt().toEpochMilli() == deadlines.get(i).toEpochMilli();
+            if (!ours) {
+                lost.add(i);
+            }
+        }
+        return lost;
+    }
+
+    private static Instant deadlineOf(McqSubmission session, Event event) {
+        if (event == null || session.getStartTime() == null || event.getDurationInMinutes() == null) {
+            return null;
+        }
+        return session.getStartTime().plus(Duration.ofMinutes(event.getDurationInMinutes()));
+    }
+}
@@ -1,10 +1,10 @@
 package com.company.event.quiz.service;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.quiz.exception.EventNotFoundException;
 import com.company.event.quiz.model.Event;
 import com.company.event.quiz.model.EventRegistration;
 import com.company.event.quiz.repository.EventRegistrationRepository;
-import com.company.event.quiz.repository.EventRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,7 +14,7 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class EventRegistrationService {
 
-    private final EventRepository eventRepository;
+    private final EntityCache<Event> eventCache;
     private final EventRegistrationRepository registrationRepository;
 
     // ==========================
@@ -22,7 +22,7 @@ public class EventRegistrationService {
     // ==========================
     public String register(String studentId, String eventId) {
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found"));
 
         if (event.getStartTime() == null) {
@@ -58,7 +58,7 @@ public class EventRegistrationService {
     // ==========================
     public String cancelRegistration(String studentId, String eventId) {
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found"));
 
         Instant now = Instant.now();
@@ -0,0 +1,43 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.model.Event;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides when an MCQ event's in-memory state (question snapshot, ranks,
+ * score stats) can be dropped: once the event is deleted, or once its last
+ * possible session, started at endTime, has run out and mcq.retire-after
+ * has passed. Whatever is dropped is loaded again if it is asked for later.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventRetirement {
+
+    private final EntityCache<Event> eventCache;
+
+    @Value("${mcq.retire-after:30m}")
+    private Duration retireAfter;
+
+    public boolean isRetired(String eventId) {
+        Event event = eventCache.findById(eventId).orElse(null);
+        if (event == null) {
+            return true;
+        }
+        if (event.getEndTime() == null) {
+            return false;
+        }
+        int duration = event.getDurationInMinutes() == null ? 0 : event.getDurationInMinutes();
+        Instant lastDeadline = event.getEndTime().plus(Duration.ofMinutes(duration));
+        return lastDeadline.plus(retireAfter).isBefore(Instant.now());
+    }
+
+    public Duration retireAfter() {
+        return retireAfter;
+    }
+}
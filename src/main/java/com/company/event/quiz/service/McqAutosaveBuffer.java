@@ -0,0 +1,187 @@
+package com.company.event.quiz.service;
+
+import com.company.event.quiz.model.McqSubmission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for answer autosaves. Clicks only touch memory; every
+ * flush interval the latest choice per (student, event, question) is written
+ * with one $set/$unset per session in a single unordered bulk write, so a
+ * student changing their mind ten times costs one update, not ten.
+ *
+ * Grading paths flush the sessions they are about to grade first. Flushes
+ * run one at a time, so a flush that finds nothing pending for a session
+ * knows its earlier choices have already been written (or were put back
+ * after a failed write). Updates only apply while the session is IN_PROGRESS.
+ *
+ * Metrics: mcq.autosave.received, mcq.autosave.sessions.flushed, mcq.autosave.pending
+ */
+@Slf4j
+@Component
+public class McqAutosaveBuffer {
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, PendingAnswers> pending = new ConcurrentHashMap<>();
+    // Taken off pending by the flush in progress but not acknowledged yet
+    private final Map<String, PendingAnswers> writing = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final Counter received;
+    private final Counter flushed;
+
+    public McqAutosaveBuffer(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.received = Counter.builder("mcq.autosave.received").register(meterRegistry);
+        this.flushed = Counter.builder("mcq.autosave.sessions.flushed").register(meterRegistry);
+        Gauge.builder("mcq.autosave.pending", pending, Map::size)
+                .description("Sessions with autosaves not yet written")
+                .register(meterRegistry);
+    }
+
+    // A null option clears the question's saved answer
+    public void record(String eventId, String studentId, String questionId, Integer selectedOption) {
+        received.increment();
+        // compute() and the remove() in flush are atomic per key, so no change is lost in between
+        pending.compute(key(eventId, studentId), (key, answers) -> {
+            if (answers == null) {
+                answers = new PendingAnswers(eventId, studentId);
+            }
+            answers.choices.put(questionId, selectedOption);
+            return answers;
+        });
+    }
+
+    /**
+     * Choices recorded but not yet written for this session; null values are clears.
+     */
+    public Map<String, Integer> pendingFor(String eventId, String studentId) {
+        Map<String, Integer> copy = new HashMap<>();
+        PendingAnswers inFlight = writing.get(key(eventId, studentId));
+        if (inFlight != null) {
+            copy.putAll(inFlight.choices);
+        }
+        pending.computeIfPresent(key(eventId, studentId), (key, answers) -> {
+            copy.putAll(answers.choices);
+            return answers;
+        });
+        return copy;
+    }
+
+    @Scheduled(fixedDelayString = "${mcq.autosave.flush-interval-ms:2000}")
+    public void flushAll() {
+        synchronized (flushLock) {
+            List<PendingAnswers> batch = new ArrayList<>();
+            for (String key : pending.keySet()) {
+                PendingAnswers answers = pending.remove(key);
+                if (answers != null) {
+                    batch.add(answers);
+                }
+            }
+            write(batch);
+        }
+    }
+
+    // Flushes just the given sessions, e.g. right before they are graded; waits for a flush already running
+    public void flush(Collection<SessionKey> sessions) {
+        synchronized (flushLock) {
+            List<PendingAnswers> batch = new ArrayList<>();
+            for (SessionKey session : sessions) {
+                PendingAnswers answers = pending.remove(key(session.eventId(), session.studentId()));
+                if (answers != null) {
+                    batch.add(answers);
+                }
+            }
+            write(batch);
+        }
+    }
+
+    // Caller holds flushLock
+    private void write(List<PendingAnswers> batch) {
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, McqSubmission.class);
+        for (PendingAnswers answers : batch) {
+            Update update = new Update();
+            answers.choices.forEach((questionId, option) -> {
+                if (option == null) {
+                    update.unset("autosavedAnswers." + questionId);
+                } else {
+                    update.set("autosavedAnswers." + questionId, option);
+                }
+            });
+            bulk.updateOne(new Query(Criteria.where("eventId").is(answers.eventId)
+                    .and("studentId").is(answers.studentId)
+                    .and("status").is("IN_PROGRESS")), update);
+        }
+
+        for (PendingAnswers answers : batch) {
+            writing.put(key(answers.eventId, answers.studentId), answers);
+        }
+        try {
+            bulk.execute();
+            flushed.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Autosave flush of {} sessions failed, keeping them for the next flush", batch.size(), e);
+            requeue(batch);
+        } finally {
+            writing.clear();
+        }
+    }
+
+    // Newer choices recorded while the failed write was in flight take precedence
+    private void requeue(List<PendingAnswers> batch) {
+        for (PendingAnswers failed : batch) {
+            pending.compute(key(failed.eventId, failed.studentId), (key, current) -> {
+                if (current == null) {
+                    return failed;
+                }
+                failed.choices.forEach(current.choices::putIfAbsent);
+                return current;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    private static String key(String eventId, String studentId) {
+        return eventId + "|" + studentId;
+    }
+
+    public record SessionKey(String eventId, String studentId) {
+    }
+
+    private static final class PendingAnswers {
+        final String eventId;
+        final String studentId;
+        // Question id to latest choice; only touched inside compute() or after removal
+        final Map<String, Integer> choices = new HashMap<>();
+
+        PendingAnswers(String eventId, String studentId) {
+            this.eventId = eventId;
+            this.studentId = studentId;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.dto.McqCountdownDTO;
+import com.company.event.quiz.exception.TestNotStartedException;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.model.McqSubmission;
+import com.company.event.quiz.repository.McqSubmissionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes the exam countdown to the test page over Server-Sent Events, so
+ * the page no longer polls /remaining-time. The deadline of every running
+ * session is kept in memory (registered on start, or loaded once when a
+ * stream opens after a restart); ticks only read that table and the event
+ * cache, never Mongo.
+ *
+ * Events sent: "deadline" when the stream opens, "sync" every sync interval
+ * for clock correction, "time-up" once the deadline passes (the page should
+ * submit), and "submitted" when the session is graded, which ends the stream.
+ *
+ * A stream is opened with a token from {@link #token}, handed only to the
+ * signed-in owner of the session, so nobody can watch another student's
+ * session by guessing their id.
+ */
+@Slf4j
+@Component
+public class McqCountdownHub {
+
+    private final EntityCache<Event> eventCache;
+    private final McqSubmissionRepository submissionRepository;
+    private final McqStreamTokens tokens;
+    private final Duration syncInterval;
+
+    private final Map<String, SessionClock> sessions = new ConcurrentHashMap<>();
+    private final Map<String, List<Connection>> connections = new ConcurrentHashMap<>();
+
+    public McqCountdownHub(EntityCache<Event> eventCache,
+                           McqSubmissionRepository submissionRepository,
+                           McqStreamTokens tokens,
+                           MeterRegistry meterRegistry,
+                           @Value("${mcq.countdown.sync-interval-ms:15000}") long syncIntervalMs) {
+
+        this.eventCache = eventCache;
+        this.submissionRepository = submissionRepository;
+        this.tokens = tokens;
+        this.syncInterval = Duration.ofMillis(syncIntervalMs);
+
+        Gauge.builder("mcq.countdown.sessions", sessions, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("mcq.countdown.streams", connections,
+                        c -> c.values().stream().mapToInt(List::size).sum())
+                .register(meterRegistry);
+    }
+
+    public void track(McqSubmission session) {
+        if (session.getStartTime() != null) {
+            sessions.put(key(session.getEventId(), session.getStudentId()),
+                    new SessionClock(session.getEventId(), session.getStartTime()));
+        }
+    }
+
+    // Valid until a few minutes past the session's deadline, so reconnects during the test keep working
+    public String token(String eventId, String studentId) {
+
+        SessionClock clock = sessions.get(key(eventId, studentId));
+        if (clock == null) {
+            clock = load(eventId, studentId);
+        }
+        Instant deadline = deadlineOf(clock);
+        Instant expiresAt = (deadline == null ? Instant.now().plus(Duration.ofHours(1)) : deadline)
+                .plus(Duration.ofMinutes(5));
+        return tokens.issue(eventId, studentId, expiresAt);
+    }
+
+    /**
+     * @throws org.springframework.web.server.ResponseStatusException 401 if the token is not valid for this event
+     */
+    public SseEmitter open(String eventId, String token) {
+
+        String studentId = tokens.verify(token, eventId);
+        String key = key(eventId, studentId);
+        SessionClock clock = sessions.get(key);
+        if (clock == null) {
+            clock = load(eventId, studentId);
+        }
+
+        if (clock.submittedStatus != null) {
+            SseEmitter emitter = new SseEmitter();
+            new Connection(emitter).send("submitted", countdown(clock, Instant.now()));
+            emitter.complete();
+            return emitter;
+        }
+        sessions.putIfAbsent(key, clock);
+
+        // The stream is closed by "submitted"; the timeout only bounds abandoned streams
+        Instant deadline = deadlineOf(clock);
+        long timeout = deadline == null ? 0L
+                : Math.max(0L, Duration.between(Instant.now(), deadline).toMillis()) + Duration.ofMinutes(5).toMillis();
+        Connection connection = new Connection(new SseEmitter(timeout));
+
+        List<Connection> open = connections.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+        open.add(connection);
+        Runnable remove = () -> connections.computeIfPresent(key, (k, list) -> {
+            list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
+        connection.emitter.onCompletion(remove);
+        connection.emitter.onTimeout(remove);
+        connection.emitter.onError(e -> remove.run());
+
+        connection.send("deadline", countdown(clock, Instant.now()));
+        return connection.emitter;
+    }
+
+    // Called once a session is graded, by whichever path graded it
+    public void submitted(String eventId, String studentId, String status) {
+
+        String key = key(eventId, studentId);
+        SessionClock clock = sessions.remove(key);
+        List<Connection> open = connections.remove(key);
+        if (open == null) {
+            return;
+        }
+
+        McqCountdownDTO payload = clock == null
+                ? new McqCountdownDTO(Instant.now(), null, 0, status)
+                : countdown(clock.withStatus(status), Instant.now());
+        for (Connection connection : open) {
+            connection.send("submitted", payload);
+            connection.emitter.complete();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${mcq.countdown.tick-ms:1000}")
+    public void tick() {
+
+        Instant now = Instant.now();
+
+        connections.forEach((key, open) -> {
+            SessionClock clock = sessions.get(key);
+            if (clock == null) {
+                return;
+            }
+            McqCountdownDTO payload = countdown(clock, now);
+            for (Connection connection : open) {
+                if (payload.getRemainingSeconds() <= 0) {
+                    if (!connection.timeUpSent) {
+                        connection.timeUpSent = true;
+                        connection.send("time-up", payload);
+                    }
+                } else if (!now.isBefore(connection.lastSync.plus(syncInterval))) {
+                    connection.lastSync = now;
+                    connection.send("sync", payload);
+                }
+            }
+        });
+    }
+
+    // Only needed for streams opened after a restart
+    private SessionClock load(String eventId, String studentId) {
+        return submissionRepository.findTopByStudentIdAndEventIdOrderByStartTimeDesc(studentId, eventId)
+                .filter(s -> s.getStartTime() != null)
+                .map(s -> new SessionClock(eventId, s.getStartTime())
+                        .withStatus(McqGradingPipeline.isGraded(s) ? s.getStatus() : null))
+                .orElseThrow(() -> new TestNotStartedException("Test not started"));
+    }
+
+    // Read on every tick so an extended duration reaches open streams
+    private Instant deadlineOf(SessionClock clock) {
+        return eventCache.findById(clock.eventId)
+                .map(Event::getDurationInMinutes)
+                .map(minutes -> clock.startTime.plus(Duration.ofMinutes(minutes)))
+                .orElse(null);
+    }
+
+    private McqCountdownDTO countdown(SessionClock clock, Instant now) {
+        Instant deadline = deadlineOf(clock);
+        long remaining = deadline == null ? 0 : Math.max(0, Duration.between(now, deadline).getSeconds());
+        String status = clock.submittedStatus != null ? clock.submittedStatus
+                : remaining > 0 ? "IN_PROGRESS" : "AUTO_SUBMITTED";
+        return new McqCountdownDTO(now, deadline, remaining, status);
+    }
+
+    private static String key(String eventId, String studentId) {
+        return eventId + "|" + studentId;
+    }
+
+    private record SessionClock(String eventId, Instant startTime, String submittedStatus) {
+
+        SessionClock(String eventId, Instant startTime) {
+            this(eventId, startTime, null);
+        }
+
+        SessionClock withStatus(String status) {
+            return new SessionClock(eventId, startTime, status);
+        }
+    }
+
+    private static final class Connection {
+        final SseEmitter emitter;
+        Instant lastSync = Instant.now();
+        boolean timeUpSent;
+
+        Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // SseEmitter is not safe for concurrent sends from the ticker and the grader
+        synchronized void send(String name, McqCountdownDTO payload) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(payload));
+            } catch (IOException e) {
+                log.debug("Countdown stream closed: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.dto.McqResultDTO;
+import com.company.event.quiz.exception.EventNotFoundException;
+import com.company.event.quiz.exception.TestAlreadySubmittedException;
+import com.company.event.quiz.exception.TestNotStartedException;
+import com.company.event.quiz.model.Answer;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.model.McqSubmission;
+import com.company.event.quiz.scheduler.McqAutoSubmitSweeper;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grades MCQ submits in micro-batches so the end-of-exam burst costs one
+ * read and one unordered bulk write per batch instead of several round
+ * trips per student. Request threads only enqueue; a single grader thread
+ * takes whatever has queued up since the last batch (up to batch-size), so
+ * batches grow with load and a lone submit is graded immediately.
+ *
+ * Metrics: mcq.grading.submits (rate = submits per second),
+ * mcq.grading.rejected, mcq.grading.queue.depth, mcq.grading.batch.size,
+ * mcq.grading.batch.time, mcq.grading.latency
+ */
+@Slf4j
+@Component
+public class McqGradingPipeline {
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCache<Event> eventCache;
+    private final QuestionSnapshotCache questionSnapshots;
+    private final McqRankIndex rankIndex;
+    private final McqScoreStats scoreStats;
+    private final McqAutosaveBuffer autosaveBuffer;
+    private final McqCountdownHub countdownHub;
+    private final McqAutoSubmitSweeper autoSubmitSweeper;
+    private final int batchSize;
+    private final BlockingQueue<GradingJob> queue;
+
+    private final Counter submits;
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+    private final Timer latency;
+
+    private Thread grader;
+    private volatile boolean running = true;
+
+    public McqGradingPipeline(MongoTemplate mongoTemplate,
+                              EntityCache<Event> eventCache,
+                              QuestionSnapshotCache questionSnapshots,
+                              McqRankIndex rankIndex,
+                              McqScoreStats scoreStats,
+                              McqAutosaveBuffer autosaveBuffer,
+                              McqCountdownHub countdownHub,
+                              McqAutoSubmitSweeper autoSubmitSweeper,
+                              MeterRegistry meterRegistry,
+                              @Value("${mcq.grading.batch-size:200}") int batchSize,
+                              @Value("${mcq.grading.queue-capacity:10000}") int queueCapacity) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.eventCache = eventCache;
+        this.questionSnapshots = questionSnapshots;
+        this.rankIndex = rankIndex;
+        this.scoreStats = scoreStats;
+        this.autosaveBuffer = autosaveBuffer;
+        this.countdownHub = countdownHub;
+        this.autoSubmitSweeper = autoSubmitSweeper;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.submits = Counter.builder("mcq.grading.submits")
+                .description("Submits graded and persisted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("mcq.grading.rejected")
+                .description("Submits turned away because the grading queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("mcq.grading.batch.size")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mcq.grading.batch.time")
+                .description("Time to load, grade and persist one batch")
+                .register(meterRegistry);
+        this.latency = Timer.builder("mcq.grading.latency")
+                .description("Time from enqueue to result")
+                .register(meterRegistry);
+
+        Gauge.builder("mcq.grading.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        grader = Thread.ofPlatform().name("mcq-grader").daemon().start(this::run);
+    }
+
+    /**
+     * Completes with the student's result once the batch holding this submit
+     * is persisted, or exceptionally with the same exceptions submitTest used
+     * to throw.
+     *
+     * @throws ResponseStatusException 503 when the queue is full
+     */
+    public CompletableFuture<McqResultDTO> submit(String studentId, String eventId, List<Answer> answers) {
+
+        GradingJob job = new GradingJob(studentId, eventId, answers, Instant.now(), System.nanoTime());
+
+        if (!running || !queue.offer(job)) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Grading is busy, please retry");
+        }
+        return job.result;
+    }
+
+    private void run() {
+
+        List<GradingJob> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+
+                long started = System.nanoTime();
+                processBatch(batch);
+                batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                batchSizes.record(batch.size());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Grading batch failed", e);
+                batch.forEach(job -> job.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<GradingJob> batch) {
+
+        // Autosaves still in memory must reach the sessions before they are read
+        autosaveBuffer.flush(batch.stream()
+                .map(job -> new McqAutosaveBuffer.SessionKey(job.eventId, job.studentId))
+                .toList());
+
+        Map<String, McqSubmission> sessions = loadSessions(batch);
+
+        // Validate and grade in memory; failures complete right away
+        List<GradedJob> graded = new ArrayList<>(batch.size());
+        Set<String> seen = new HashSet<>();
+
+        for (GradingJob job : batch) {
+            try {
+                String key = key(job.eventId, job.studentId);
+                McqSubmission session = sessions.get(key);
+                if (session == null) {
+                    throw new TestNotStartedException("Test not started");
+                }
+                // A second submit in the same batch loses to the first
+                if (isGraded(session) || !seen.add(key)) {
+                    throw new TestAlreadySubmittedException("Test already submitted");
+                }
+                eventCache.findById(job.eventId)
+                        .orElseThrow(() -> new EventNotFoundException("Event not found"));
+
+                // The submitted answers are validated as before, then fill in over the autosaved ones
+                QuestionSnapshot.AnswerKey answerKey = questionSnapshots.get(job.eventId).getAnswerKey();
+                answerKey.grade(job.answers);
+                List<Answer> answers = merge(session.getAutosavedAnswers(), job.answers, answerKey);
+                graded.add(new GradedJob(job, session, answers, answerKey.gradeIgnoringUnknown(answers)));
+
+            } catch (RuntimeException e) {
+                job.result.completeExceptionally(e);
+            }
+        }
+
+        if (graded.isEmpty()) {
+            return;
+        }
+
+        Persisted persisted = persist(graded);
+
+        for (int i = 0; i < graded.size(); i++) {
+            GradedJob g = graded.get(i);
+            if (persisted.failed().contains(i)) {
+                g.job.result.completeExceptionally(
+                        new IllegalStateException("Submission could not be saved, please retry"));
+                continue;
+            }
+            // Graded elsewhere (e.g. by the auto-submit sweeper) after this batch loaded it
+            if (persisted.unmatched().contains(i)) {
+                g.job.result.completeExceptionally(new TestAlreadySubmittedException("Test already submitted"));
+                continue;
+            }
+            rankIndex.record(g.job.eventId, g.job.studentId, g.grade.totalScore(), g.job.receivedAt);
+            int rank = rankIndex.rankOf(g.job.eventId, g.job.studentId);
+            scoreStats.record(g.job.eventId, g.job.studentId, "COMPLETED", g.grade.totalScore());
+            countdownHub.submitted(g.job.eventId, g.job.studentId, "COMPLETED");
+            autoSubmitSweeper.cancel(g.session.getId());
+
+            submits.increment();
+            latency.record(System.nanoTime() - g.job.enqueuedAt, TimeUnit.NANOSECONDS);
+            g.job.result.complete(new McqResultDTO(
+                    (int) g.grade.totalScore(), g.grade.correct(), g.grade.wrong(), rank));
+        }
+    }
+
+    // One query for every (event, student) pair in the batch
+    private Map<String, McqSubmission> loadSessions(List<GradingJob> batch) {
+
+        Set<String> eventIds = new HashSet<>();
+        Set<String> studentIds = new HashSet<>();
+        for (GradingJob job : batch) {
+            eventIds.add(job.eventId);
+            studentIds.add(job.studentId);
+        }
+
+        Query query = new Query(Criteria.where("eventId").in(eventIds).and("studentId").in(studentIds));
+        query.fields().exclude("answers");
+
+        Map<String, McqSubmission> sessions = new HashMap<>();
+        for (McqSubmission session : mongoTemplate.find(query, McqSubmission.class)) {
+            sessions.put(key(session.getEventId(), session.getStudentId()), session);
+        }
+        return sessions;
+    }
+
+    /**
+     * @return indexes into graded whose write failed, and those whose guard
+     * matched nothing because the session was graded in the meantime
+     */
+    private Persisted persist(List<GradedJob> graded) {
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, McqSubmission.class);
+
+        for (GradedJob g : graded) {
+            Update update = new Update()
+                    .set("submittedAt", g.job.receivedAt)
+                    .set("answers", g.answers)
+                    .set("totalScore", g.grade.totalScore())
+                    .set("correctCount", g.grade.correct())
+                    .set("wrongCount", g.grade.wrong())
+                    .set("status", "COMPLETED");
+            if (g.session.getStartTime() == null) {
+                update.set("startTime", g.job.receivedAt);
+            }
+            // Guarded so a session graded since it was loaded is not overwritten
+            bulk.updateOne(new Query(new Criteria().andOperator(
+                    Criteria.where("_id").is(g.session.getId()), ungraded())), update);
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        int matched;
+        try {
+            matched = bulk.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+            }
+            matched = e.getResult().getMatchedCount();
+        } catch (RuntimeException e) {
+            log.error("Bulk write of {} graded submits failed", graded.size(), e);
+            for (int i = 0; i < graded.size(); i++) {
+                failed.add(i);
+            }
+            return new Persisted(failed, Set.of());
+        }
+
+        if (matched == graded.size() - failed.size()) {
+            return new Persisted(failed, Set.of());
+        }
+        return new Persisted(failed, unmatched(graded, failed));
+    }
+
+    /**
+     * The bulk result only has a total, so the written sessions are read back
+     * to find which guards missed: ours carry this pipeline's status and
+     * submit time.
+     */
+    private Set<Integer> unmatched(List<GradedJob> graded, Set<Integer> failed) {
+
+        List<String> ids = new ArrayList<>(graded.size());
+        for (GradedJob g : graded) {
+            ids.add(g.session.getId());
+        }
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("status", "submittedAt");
+
+        Map<String, McqSubmission> current = new HashMap<>();
+        for (McqSubmission session : mongoTemplate.find(query, McqSubmission.class)) {
+            current.put(session.getId(), session);
+        }
+
+        Set<Integer> unmatched = new HashSet<>();
+        for (int i = 0; i < graded.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            GradedJob g = graded.get(i);
+            McqSubmission session = current.get(g.session.getId());
+            // Mongo keeps millisecond precision
+            boolean ours = session != null
+                    && "COMPLETED".equals(session.getStatus())
+                    && session.getSubmittedAt() != null
+                    && session.getSubmittedAt().toEpochMilli() == g.job.receivedAt.toEpochMilli();
+            if (!ours) {
+                unmatched.add(i);
+            }
+        }
+        return unmatched;
+    }
+
+    /**
+     * Autosaved choices for questions still in the event, overridden by the
+     * submitted answers. Null answers and answers without a question are dropped.
+     */
+    public static List<Answer> merge(Map<String, Integer> autosaved,
+                                     List<Answer> submitted,
+                                     QuestionSnapshot.AnswerKey answerKey) {
+
+        Map<String, Integer> merged = new LinkedHashMap<>();
+        if (autosaved != null) {
+            autosaved.forEach((questionId, option) -> {
+                if (questionId != null && answerKey.positionOf(questionId) >= 0) {
+                    merged.put(questionId, option);
+                }
+            });
+        }
+        for (Answer answer : submitted) {
+            if (answer != null && answer.getQuestionId() != null) {
+                merged.put(answer.getQuestionId(), answer.getSelectedOption());
+            }
+        }
+
+        List<Answer> answers = new ArrayList<>(merged.size());
+        merged.forEach((questionId, option) -> answers.add(new Answer(questionId, option)));
+        return answers;
+    }
+
+    /**
+     * Sessions still waiting for a grade: running ones, plus sessions that
+     * were marked AUTO_SUBMITTED without being graded before the sweeper existed.
+     */
+    public static Criteria ungraded() {
+        return new Criteria().orOperator(
+                Criteria.where("status").is("IN_PROGRESS"),
+                Criteria.where("status").is("AUTO_SUBMITTED").and("totalScore").is(null));
+    }
+
+    public static boolean isGraded(McqSubmission session) {
+        return "COMPLETED".equals(session.getStatus())
+                || ("AUTO_SUBMITTED".equals(session.getStatus()) && session.getTotalScore() != null);
+    }
+
+    private static String key(String eventId, String studentId) {
+        return eventId + "|" + studentId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (grader != null) {
+            grader.interrupt();
+        }
+        List<GradingJob> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(job -> job.result.completeExceptionally(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is shutting down")));
+    }
+
+    private static final class GradingJob {
+        final String studentId;
+        final String eventId;
+        final List<Answer> answers;
+        final Instant receivedAt;
+        final long enqueuedAt;
+        final CompletableFuture<McqResultDTO> result = new CompletableFuture<>();
+
+        GradingJob(String studentId, String eventId, List<Answer> answers, Instant receivedAt, long enqueuedAt) {
+            this.studentId = studentId;
+            this.eventId = eventId;
+            this.answers = answers;
+            this.receivedAt = receivedAt;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private record GradedJob(GradingJob job, McqSubmission session, List<Answer> answers,
+                             QuestionSnapshot.Grade grade) {
+    }
+
+    private record Persisted(Set<Integer> failed, Set<Integer> unmatched) {
+    }
+}
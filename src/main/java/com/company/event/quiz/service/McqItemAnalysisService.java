@@ -0,0 +1,210 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.dto.ItemAnalysisDTO;
+import com.company.event.quiz.dto.ItemAnalysisReportDTO;
+import com.company.event.quiz.dto.QuestionResponseDTO;
+import com.company.event.quiz.exception.EventNotFoundException;
+import com.company.event.quiz.model.Answer;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.model.McqSubmission;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Per-question item analysis of an MCQ event's graded submissions:
+ * difficulty, discrimination (upper vs lower 27% by total score), how
+ * often each option was picked and how often the question was left blank.
+ *
+ * Submissions are split into ranges counted in parallel on the common
+ * fork-join pool. Every counter is a primitive array indexed by question
+ * position in the answer key (option counts are one flat array with a
+ * per-question offset), so the only per-answer work is one id lookup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class McqItemAnalysisService {
+
+    private static final double GROUP_FRACTION = 0.27;
+    private static final int ROWS_PER_TASK = 512;
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCache<Event> eventCache;
+    private final QuestionSnapshotCache questionSnapshots;
+
+    public ItemAnalysisReportDTO analyze(String eventId) {
+
+        eventCache.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found"));
+
+        QuestionSnapshot snapshot = questionSnapshots.get(eventId);
+        QuestionSnapshot.AnswerKey answerKey = snapshot.getAnswerKey();
+        List<QuestionResponseDTO> questions = snapshot.getQuestions();
+
+        long started = System.nanoTime();
+
+        Query query = new Query(Criteria.where("eventId").is(eventId)
+                .and("status").in("COMPLETED", "AUTO_SUBMITTED"));
+        query.fields().include("totalScore", "answers");
+
+        // Best first, so the upper and lower groups are the two ends of the list
+        List<McqSubmission> submissions = new ArrayList<>(mongoTemplate.find(query, McqSubmission.class));
+        submissions.sort(Comparator.comparingDouble(
+                (McqSubmission s) -> s.getTotalScore() == null ? 0.0 : s.getTotalScore()).reversed());
+
+        int n = submissions.size();
+        int groupSize = n < 2 ? 0 : Math.max(1, (int) Math.round(n * GROUP_FRACTION));
+
+        int[] optionOffsets = new int[questions.size() + 1];
+        for (int i = 0; i < questions.size(); i++) {
+            List<String> options = questions.get(i).getOptions();
+            optionOffsets[i + 1] = optionOffsets[i] + (options == null ? 0 : options.size());
+        }
+
+        Counts counts = n == 0
+                ? new Counts(answerKey.size(), optionOffsets[questions.size()])
+                : ForkJoinPool.commonPool().invoke(
+                        new CountTask(submissions, 0, n, groupSize, answerKey, optionOffsets));
+
+        List<ItemAnalysisDTO> items = new ArrayList<>(questions.size());
+        for (int q = 0; q < questions.size(); q++) {
+
+            QuestionResponseDTO question = questions.get(q);
+            double difficulty = n == 0 ? 0.0 : (double) counts.correct[q] / n;
+            double discrimination = groupSize == 0 ? 0.0
+                    : (double) (counts.upperCorrect[q] - counts.lowerCorrect[q]) / groupSize;
+
+            items.add(new ItemAnalysisDTO(
+                    question.getQuestionId(),
+                    question.getQuestionText(),
+                    answerKey.correctOption(q),
+                    counts.correct[q],
+                    n - counts.answered[q],
+                    difficulty,
+                    discrimination,
+                    Arrays.copyOfRange(counts.options, optionOffsets[q], optionOffsets[q + 1])
+            ));
+        }
+
+        log.info("Item analysis for event {}: {} submissions x {} questions in {} ms",
+                eventId, n, questions.size(), (System.nanoTime() - started) / 1_000_000);
+
+        return new ItemAnalysisReportDTO(eventId, n, groupSize, items);
+    }
+
+    private static final class Counts {
+        final long[] correct;
+        final long[] answered;
+        final long[] upperCorrect;
+        final long[] lowerCorrect;
+        final long[] options;
+
+        Counts(int questions, int totalOptions) {
+            correct = new long[questions];
+            answered = new long[questions];
+            upperCorrect = new long[questions];
+            lowerCorrect = new long[questions];
+            options = new long[totalOptions];
+        }
+
+        Counts add(Counts other) {
+            for (int q = 0; q < correct.length; q++) {
+                correct[q] += other.correct[q];
+                answered[q] += other.answered[q];
+                upperCorrect[q] += other.upperCorrect[q];
+                lowerCorrect[q] += other.lowerCorrect[q];
+            }
+            for (int i = 0; i < options.length; i++) {
+                options[i] += other.options[i];
+            }
+            return this;
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<Counts> {
+
+        private final List<McqSubmission> submissions;
+        private final int from;
+        private final int to;
+        private final int groupSize;
+        private final QuestionSnapshot.AnswerKey answerKey;
+        private final int[] optionOffsets;
+
+        CountTask(List<McqSubmission> submissions, int from, int to, int groupSize,
+                  QuestionSnapshot.AnswerKey answerKey, int[] optionOffsets) {
+            this.submissions = submissions;
+            this.from = from;
+            this.to = to;
+            this.groupSize = groupSize;
+            this.answerKey = answerKey;
+            this.optionOffsets = optionOffsets;
+        }
+
+        @Override
+        protected Counts compute() {
+
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                CountTask left = new CountTask(submissions, from, mid, groupSize, answerKey, optionOffsets);
+                left.fork();
+                Counts right = new CountTask(submissions, mid, to, groupSize, answerKey, optionOffsets).compute();
+                return left.join().add(right);
+            }
+
+            int questions = answerKey.size();
+            Counts counts = new Counts(questions, optionOffsets[questions]);
+            int lowerStart = submissions.size() - groupSize;
+
+            // Row that last answered each question, so a repeated answer is only counted once
+            int[] seenIn = new int[questions];
+            Arrays.fill(seenIn, -1);
+
+            for (int row = from; row < to; row++) {
+                List<Answer> answers = submissions.get(row).getAnswers();
+                if (answers == null) {
+                    continue;
+                }
+                boolean upper = row < groupSize;
+                boolean lower = row >= lowerStart;
+
+                for (Answer answer : answers) {
+                    if (answer == null || answer.getQuestionId() == null) {
+                        continue;
+                    }
+                    int q = answerKey.positionOf(answer.getQuestionId());
+                    Integer selected = answer.getSelectedOption();
+                    if (q < 0 || selected == null || seenIn[q] == row) {
+                        continue;
+                    }
+                    seenIn[q] = row;
+                    counts.answered[q]++;
+
+                    if (selected >= 0 && optionOffsets[q] + selected < optionOffsets[q + 1]) {
+                        counts.options[optionOffsets[q] + selected]++;
+                    }
+                    if (answerKey.isCorrect(q, selected)) {
+                        counts.correct[q]++;
+                        if (upper) {
+                            counts.upperCorrect[q]++;
+                        } else if (lower) {
+                            counts.lowerCorrect[q]++;
+                        }
+                    }
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.company.event.quiz.service;
+
+import com.company.event.quiz.model.McqSubmission;
+import com.company.event.quiz.repository.McqSubmissionRepository;
+import com.company.event.util.OrderStatisticTree;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory ranking of every scored MCQ submission per event, in the same
+ * order as findByEventIdOrderByTotalScoreDescSubmittedAtAsc (studentId
+ * breaks the remaining ties). An event's ranking is loaded from Mongo the
+ * first time it is needed after a restart and kept current by
+ * {@link #record}, so a rank lookup is O(log n) instead of a full scan.
+ *
+ * Submissions without a score yet (IN_PROGRESS) are not indexed; like in
+ * the Mongo sort they rank after every scored one. Rankings of finished
+ * events are dropped (see {@link EventRetirement}) and reloaded on demand.
+ */
+@Component
+@RequiredArgsConstructor
+public class McqRankIndex {
+
+    private static final Comparator<RankKey> ORDER = Comparator
+            .comparingDouble(RankKey::score).reversed()
+            .thenComparing(RankKey::submittedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RankKey::studentId);
+
+    private final McqSubmissionRepository submissionRepository;
+    private final EventRetirement retirement;
+    private final Map<String, EventRanking> rankings = new ConcurrentHashMap<>();
+
+    // Insert or move a student's entry; safe to repeat with the same values
+    public void record(String eventId, String studentId, double score, Instant submittedAt) {
+        rankingFor(eventId).put(new RankKey(score, submittedAt, studentId));
+    }
+
+    /**
+     * 1-based rank of the student's scored submission, or one past the last
+     * scored submission if the student has none.
+     */
+    public int rankOf(String eventId, String studentId) {
+        return rankingFor(eventId).rankOf(studentId);
+    }
+
+    // The first limit entries in rank order
+    public List<Ranked> top(String eventId, int limit) {
+        return rankingFor(eventId).top(limit);
+    }
+
+    public void evict(String eventId) {
+        rankings.remove(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${mcq.retire-check-ms:60000}")
+    public void retireFinished() {
+        rankings.keySet().removeIf(retirement::isRetired);
+    }
+
+    private EventRanking rankingFor(String eventId) {
+        // Concurrent first lookups for an event wait for a single load
+        return rankings.computeIfAbsent(eventId, this::load);
+    }
+
+    private EventRanking load(String eventId) {
+        EventRanking ranking = new EventRanking();
+        for (McqSubmission submission : submissionRepository.findRankFieldsByEventId(eventId)) {
+            if (submission.getTotalScore() != null && submission.getStudentId() != null) {
+                ranking.put(new RankKey(
+                        submission.getTotalScore(), submission.getSubmittedAt(), submission.getStudentId()));
+            }
+        }
+        return ranking;
+    }
+
+    public record Ranked(String studentId, double score) {
+    }
+
+    private record RankKey(double score, Instant submittedAt, String studentId) {
+    }
+
+    private static final class EventRanking {
+
+        private final OrderStatisticTree<RankKey> tree = new OrderStatisticTree<>(ORDER);
+        private final Map<String, RankKey> byStudent = new HashMap<>();
+
+        synchronized void put(RankKey key) {
+            RankKey previous = byStudent.put(key.studentId(), key);
+            if (previous != null) {
+                tree.remove(previous);
+            }
+            tree.add(key);
+        }
+
+        synchronized int rankOf(String studentId) {
+            RankKey key = byStudent.get(studentId);
+            return key == null ? tree.size() + 1 : tree.rank(key) + 1;
+        }
+
+        synchronized List<Ranked> top(int limit) {
+            return tree.range(0, limit).stream()
+                    .map(key -> new Ranked(key.studentId(), key.score()))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.dto.RegradeStatusDTO;
+import com.company.event.quiz.exception.EventNotFoundException;
+import com.company.event.quiz.model.Answer;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.model.McqSubmission;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Regrades every graded submission of an MCQ event against the current
+ * questions, e.g. after a wrong correctOption or marks value was fixed.
+ *
+ * The event's answer key is rebuilt once (flat arrays by question
+ * position); submissions are then read through a cursor in chunks, each
+ * chunk graded in parallel into a GradeBuffer reused for every chunk and
+ * written back with one unordered bulk update that only touches submissions
+ * whose score changed. Each update is guarded on the status and score that
+ * were read, so a submission changed in the meantime is left alone; only
+ * rows actually updated go into McqRankIndex and McqScoreStats.
+ * Jobs run one at a time on a background thread; progress is polled via
+ * {@link #status}. A finished job's status is kept for mcq.retire-after.
+ */
+@Slf4j
+@Service
+public class McqRegradeService {
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCache<Event> eventCache;
+    private final QuestionSnapshotCache questionSnapshots;
+    private final McqRankIndex rankIndex;
+    private final McqScoreStats scoreStats;
+    private final EventRetirement retirement;
+    private final int chunkSize;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("mcq-regrade").daemon().factory());
+    private final Map<String, RegradeJob> jobs = new ConcurrentHashMap<>();
+
+    public McqRegradeService(MongoTemplate mongoTemplate,
+                             EntityCache<Event> eventCache,
+                             QuestionSnapshotCache questionSnapshots,
+                             McqRankIndex rankIndex,
+                             McqScoreStats scoreStats,
+                             EventRetirement retirement,
+                             @Value("${mcq.regrade.chunk-size:1000}") int chunkSize) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.eventCache = eventCache;
+        this.questionSnapshots = questionSnapshots;
+        this.rankIndex = rankIndex;
+        this.scoreStats = scoreStats;
+        this.retirement = retirement;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @throws ResponseStatusException 409 if a regrade of the event is still running
+     */
+    public RegradeStatusDTO start(String eventId) {
+
+        eventCache.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found"));
+
+        RegradeJob job = new RegradeJob(eventId, mongoTemplate.count(gradedQuery(eventId), McqSubmission.class));
+
+        RegradeJob running = jobs.compute(eventId, (id, previous) ->
+                previous != null && previous.finishedAt == null ? previous : job);
+        if (running != job) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A regrade of this event is already running");
+        }
+
+        executor.submit(() -> run(job));
+        return job.toDto();
+    }
+
+    public RegradeStatusDTO status(String eventId) {
+        RegradeJob job = jobs.get(eventId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No regrade has been run for this event");
+        }
+        return job.toDto();
+    }
+
+    @Scheduled(fixedDelayString = "${mcq.retire-check-ms:60000}")
+    public void retireFinished() {
+        Instant cutoff = Instant.now().minus(retirement.retireAfter());
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(RegradeJob job) {
+
+        String status = "FAILED";
+        try {
+            // Compiled from the questions as they are now, not whatever was cached
+            questionSnapshots.refresh(job.eventId);
+            QuestionSnapshot.AnswerKey answerKey = questionSnapshots.get(job.eventId).getAnswerKey();
+
+            Query query = gradedQuery(job.eventId);
+            query.fields().include("studentId", "status", "submittedAt", "answers",
+                    "totalScore", "correctCount", "wrongCount");
+            query.cursorBatchSize(chunkSize);
+
+            List<McqSubmission> chunk = new ArrayList<>(chunkSize);
+            Buffers buffers = new Buffers(chunkSize);
+            try (Stream<McqSubmission> cursor = mongoTemplate.stream(query, McqSubmission.class)) {
+                cursor.forEach(submission -> {
+                    chunk.add(submission);
+                    if (chunk.size() == chunkSize) {
+                        regrade(job, chunk, answerKey, buffers);
+                        chunk.clear();
+                    }
+                });
+            }
+            regrade(job, chunk, answerKey, buffers);
+
+            status = "COMPLETED";
+            log.info("Regraded event {}: {} submissions, {} changed, {} failed",
+                    job.eventId, job.processed.get(), job.changed.get(), job.failed.get());
+
+        } catch (RuntimeException e) {
+            log.error("Regrade of event {} failed", job.eventId, e);
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = Instant.now();
+            job.status = status;
+        }
+    }
+
+    private void regrade(RegradeJob job, List<McqSubmission> chunk, QuestionSnapshot.AnswerKey answerKey,
+                         Buffers buffers) {
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        QuestionSnapshot.GradeBuffer grades = buffers.grades;
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> {
+            List<Answer> answers = chunk.get(i).getAnswers();
+            answerKey.gradeIgnoringUnknown(answers == null ? List.of() : answers, grades, i);
+        });
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, McqSubmission.class);
+        // Chunk positions of the rows in the bulk, in bulk order
+        int[] written = buffers.written;
+        int writes = 0;
+
+        for (int i = 0; i < chunk.size(); i++) {
+            McqSubmission submission = chunk.get(i);
+            if (unchanged(submission, grades, i)) {
+                continue;
+            }
+            bulk.updateOne(
+                    new Query(Criteria.where("_id").is(submission.getId())
+                            .and("status").is(submission.getStatus())
+                            .and("totalScore").is(submission.getTotalScore())),
+                    new Update()
+                            .set("totalScore", grades.totalScore(i))
+                            .set("correctCount", grades.correct(i))
+                            .set("wrongCount", grades.wrong(i)));
+            written[writes++] = i;
+        }
+
+        if (writes == 0) {
+            job.processed.addAndGet(chunk.size());
+            return;
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        int matched;
+        try {
+            matched = bulk.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+            }
+            BulkWriteResult result = e.getResult();
+            matched = result == null ? 0 : result.getMatchedCount();
+        }
+
+        // Some guards did not match: find out which rows really hold the new grade
+        Set<String> updated = matched < writes - failed.size()
+                ? updatedIds(chunk, grades, written, writes, failed)
+                : null;
+
+        int skipped = 0;
+        for (int w = 0; w < writes; w++) {
+            if (failed.contains(w)) {
+                continue;
+            }
+            int i = written[w];
+            McqSubmission submission = chunk.get(i);
+            if (updated != null && !updated.contains(submission.getId())) {
+                skipped++;
+                continue;
+            }
+            rankIndex.record(job.eventId, submission.getStudentId(), grades.totalScore(i), submission.getSubmittedAt());
+            scoreStats.record(job.eventId, submission.getStudentId(), submission.getStatus(), grades.totalScore(i));
+        }
+
+        job.processed.addAndGet(chunk.size());
+        job.changed.addAndGet(writes - failed.size() - skipped);
+        job.failed.addAndGet(failed.size() + skipped);
+    }
+
+    // Rows of the bulk (other than failed ones) that are now stored with the grade we wrote
+    private Set<String> updatedIds(List<McqSubmission> chunk, QuestionSnapshot.GradeBuffer grades,
+                                   int[] written, int writes, Set<Integer> failed) {
+
+        Map<String, Integer> slots = new HashMap<>();
+        for (int w = 0; w < writes; w++) {
+            if (!failed.contains(w)) {
+                slots.put(chunk.get(written[w]).getId(), written[w]);
+            }
+        }
+
+        Query query = new Query(Criteria.where("_id").in(slots.keySet()));
+        query.fields().include("totalScore", "correctCount", "wrongCount");
+
+        Set<String> updated = new HashSet<>();
+        for (McqSubmission stored : mongoTemplate.find(query, McqSubmission.class)) {
+            if (unchanged(stored, grades, slots.get(stored.getId()))) {
+                updated.add(stored.getId());
+            }
+        }
+        return updated;
+    }
+
+    private static boolean unchanged(McqSubmission submission, QuestionSnapshot.GradeBuffer grades, int slot) {
+        return submission.getTotalScore() != null
+                && submission.getTotalScore() == grades.totalScore(slot)
+                && submission.getCorrectCount() != null && submission.getCorrectCount() == grades.correct(slot)
+                && submission.getWrongCount() != null && submission.getWrongCount() == grades.wrong(slot);
+    }
+
+    // Scored submissions that have answers; ABSENT ones have nothing to regrade
+    private static Query gradedQuery(String eventId) {
+        return new Query(Criteria.where("eventId").is(eventId)
+                .and("status").in("COMPLETED", "AUTO_SUBMITTED")
+                .and("totalScore").ne(null));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Allocated once per job and reused for every chunk
+    private static final class Buffers {
+        final QuestionSnapshot.GradeBuffer grades;
+        final int[] written;
+
+        Buffers(int chunkSize) {
+            this.grades = new QuestionSnapshot.GradeBuffer(chunkSize);
+            this.written = new int[chunkSize];
+        }
+    }
+
+    private static final class RegradeJob {
+        final String eventId;
+        final long total;
+        final Instant startedAt = Instant.now();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong changed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        volatile String status = "RUNNING";
+        volatile Instant finishedAt;
+        volatile String error;
+
+        RegradeJob(String eventId, long total) {
+            this.eventId = eventId;
+            this.total = total;
+        }
+
+        RegradeStatusDTO toDto() {
+            return new RegradeStatusDTO(eventId, status, total, processed.get(), changed.get(), failed.get(),
+                    startedAt, finishedAt, error);
+        }
+    }
+}
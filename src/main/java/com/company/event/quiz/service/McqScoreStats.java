@@ -0,0 +1,175 @@
+package com.company.event.quiz.service;
+
+import com.company.event.quiz.dto.ScoreBucketDTO;
+import com.company.event.quiz.model.McqSubmission;
+import com.company.event.quiz.repository.McqSubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running score statistics per MCQ event, updated on every graded
+ * submission so the admin analytics page does not rescan submissions on
+ * each refresh. Like {@link McqRankIndex}, an event is loaded from Mongo
+ * the first time it is needed, kept current by {@link #record} and dropped
+ * once the event is over.
+ *
+ * Besides count/sum/sum of squares, each event keeps the number of
+ * submissions per distinct score. Scores only take a handful of values
+ * (sums of question marks), so this map is smaller than a quantile sketch
+ * and gives exact min/max, median, p90, pass counts and histograms for
+ * any pass mark or bucket width.
+ */
+@Component
+@RequiredArgsConstructor
+public class McqScoreStats {
+
+    private static final int HISTOGRAM_BUCKETS = 10;
+
+    private final McqSubmissionRepository submissionRepository;
+    private final EventRetirement retirement;
+    private final Map<String, EventStats> stats = new ConcurrentHashMap<>();
+
+    // Insert or replace a student's graded submission; safe to repeat
+    public void record(String eventId, String studentId, String status, double score) {
+        statsFor(eventId).put(studentId, status, score);
+    }
+
+    public Summary summarize(String eventId, double passMarks, double totalMarks) {
+        return statsFor(eventId).summarize(passMarks, totalMarks);
+    }
+
+    public void evict(String eventId) {
+        stats.remove(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${mcq.retire-check-ms:60000}")
+    public void retireFinished() {
+        stats.keySet().removeIf(retirement::isRetired);
+    }
+
+    private EventStats statsFor(String eventId) {
+        return stats.computeIfAbsent(eventId, this::load);
+    }
+
+    private EventStats load(String eventId) {
+        EventStats eventStats = new EventStats();
+        for (McqSubmission submission : submissionRepository.findRankFieldsByEventId(eventId)) {
+            if (submission.getTotalScore() != null && submission.getStudentId() != null) {
+                eventStats.put(submission.getStudentId(), submission.getStatus(), submission.getTotalScore());
+            }
+        }
+        return eventStats;
+    }
+
+    /**
+     * Stats over every scored submission (including ABSENT ones at 0);
+     * attempts only counts COMPLETED and AUTO_SUBMITTED.
+     */
+    public record Summary(long attempts,
+                          long scored,
+                          double average,
+                          double highest,
+                          double lowest,
+                          double stdDev,
+                          double median,
+                          double p90,
+                          long passCount,
+                          List<ScoreBucketDTO> distribution) {
+    }
+
+    private record Scored(String status, double score) {
+    }
+
+    private static final class EventStats {
+
+        private final Map<String, Scored> byStudent = new HashMap<>();
+        private final TreeMap<Double, Long> countsByScore = new TreeMap<>();
+        private long attempts;
+        private double sum;
+        private double sumOfSquares;
+
+        synchronized void put(String studentId, String status, double score) {
+            Scored previous = byStudent.put(studentId, new Scored(status, score));
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            apply(new Scored(status, score), 1);
+        }
+
+        private void apply(Scored scored, int delta) {
+            countsByScore.merge(scored.score(), (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+            sum += delta * scored.score();
+            sumOfSquares += delta * scored.score() * scored.score();
+            if ("COMPLETED".equals(scored.status()) || "AUTO_SUBMITTED".equals(scored.status())) {
+                attempts += delta;
+            }
+        }
+
+        synchronized Summary summarize(double passMarks, double totalMarks) {
+
+            long n = byStudent.size();
+            if (n == 0) {
+                return new Summary(0, 0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0, List.of());
+            }
+
+            double average = sum / n;
+            // Population variance; clamp the rounding error of sumSq/n - mean^2
+            double stdDev = Math.sqrt(Math.max(0.0, sumOfSquares / n - average * average));
+
+            long passCount = 0;
+            for (long count : countsByScore.tailMap(passMarks, true).values()) {
+                passCount += count;
+            }
+
+            return new Summary(
+                    attempts,
+                    n,
+                    average,
+                    countsByScore.lastKey(),
+                    countsByScore.firstKey(),
+                    stdDev,
+                    quantile(0.5, n),
+                    quantile(0.9, n),
+                    passCount,
+                    histogram(totalMarks > 0 ? totalMarks : countsByScore.lastKey()));
+        }
+
+        // Nearest-rank quantile
+        private double quantile(double q, long n) {
+            long rank = Math.max(1, (long) Math.ceil(q * n));
+            long seen = 0;
+            for (Map.Entry<Double, Long> entry : countsByScore.entrySet()) {
+                seen += entry.getValue();
+                if (seen >= rank) {
+                    return entry.getKey();
+                }
+            }
+            return countsByScore.lastKey();
+        }
+
+        // Equal-width buckets over [0, upper]; scores outside fall into the end buckets
+        private List<ScoreBucketDTO> histogram(double upper) {
+
+            double width = upper > 0 ? upper / HISTOGRAM_BUCKETS : 1.0;
+            long[] counts = new long[HISTOGRAM_BUCKETS];
+            countsByScore.forEach((score, count) -> {
+                int bucket = (int) Math.floor(score / width);
+                counts[Math.min(HISTOGRAM_BUCKETS - 1, Math.max(0, bucket))] += count;
+            });
+
+            List<ScoreBucketDTO> buckets = new ArrayList<>(HISTOGRAM_BUCKETS);
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                buckets.add(new ScoreBucketDTO(i * width, (i + 1) * width, counts[i]));
+            }
+            return buckets;
+        }
+    }
+}
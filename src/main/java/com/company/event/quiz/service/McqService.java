@@ -1,40 +1,54 @@
 package com.company.event.quiz.service;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.quiz.dto.*;
 import com.company.event.quiz.exception.EventNotFoundException;
 import com.company.event.quiz.exception.TestAlreadySubmittedException;
 import com.company.event.quiz.exception.TestNotStartedException;
 import com.company.event.quiz.model.Answer;
 import com.company.event.quiz.model.Event;
-import com.company.event.quiz.model.McqQuestion;
 import com.company.event.quiz.model.McqSubmission;
 import com.company.event.quiz.repository.EventRegistrationRepository;
-import com.company.event.quiz.repository.EventRepository;
-import com.company.event.quiz.repository.McqQuestionRepository;
 import com.company.event.quiz.repository.McqSubmissionRepository;
+import com.company.event.quiz.scheduler.McqAutoSubmitSweeper;
 import com.company.event.user.User;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class McqService {
 
-    private final EventRepository eventRepository;
-    private final McqQuestionRepository questionRepository;
+    private final EntityCache<Event> eventCache;
+    private final QuestionSnapshotCache questionSnapshots;
+    private final McqRankIndex rankIndex;
+    private final McqGradingPipeline gradingPipeline;
+    private final McqAutoSubmitSweeper autoSubmitSweeper;
+    private final McqAutosaveBuffer autosaveBuffer;
+    private final McqCountdownHub countdownHub;
     private final McqSubmissionRepository submissionRepository;
     private final EventRegistrationRepository registrationRepository;
+    private final McqScoreStats scoreStats;
+    private final MongoTemplate mongoTemplate;
     private final com.company.event.user.UserRepository userRepository;
 
-    public List<QuestionResponseDTO> startTest(String studentId, String eventId) {
+    // Only the session bookkeeping is per student; the questions come from the shared snapshot
+    public QuestionSnapshot startTest(String studentId, String eventId) {
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found"));
 
         if (event.getStartTime() == null || event.getEndTime() == null) {
@@ -62,22 +76,14 @@ public class McqService {
             System.out.println("Resuming test for student: " + studentId);
             McqSubmission submission = existingSubmission.get();
 
-            if ("COMPLETED".equals(submission.getStatus())) {
+            if (McqGradingPipeline.isGraded(submission)) {
                 throw new TestAlreadySubmittedException("Test already submitted");
             }
-            
-            List<QuestionResponseDTO> qs = questionRepository.findByEventId(eventId)
-                    .stream()
-                    .map(q -> new QuestionResponseDTO(
-                            q.getId(),
-                            q.getQuestionText(),
-                            q.getOptions(),
-                            q.getMarks(),
-                            q.getNegativeMarks()
-                    ))
-                    .toList();
-            System.out.println("Returning " + qs.size() + " questions (Resume)");
-            return qs;
+            countdownHub.track(submission);
+
+            QuestionSnapshot snapshot = questionSnapshots.get(eventId);
+            System.out.println("Returning " + snapshot.getQuestions().size() + " questions (Resume)");
+            return snapshot;
         }
 
         // Fresh start
@@ -87,135 +93,63 @@ public class McqService {
         submission.setStartTime(now);
         submission.setStatus("IN_PROGRESS");
 
-        submissionRepository.save(submission);
-
-        return questionRepository.findByEventId(eventId)
-                .stream()
-                    .map(q -> new QuestionResponseDTO(
-                            q.getId(),
-                            q.getQuestionText(),
-                            q.getOptions(),
-                            q.getMarks(),
-                            q.getNegativeMarks()
-                    ))
-                    .toList();
+        try {
+            submissionRepository.save(submission);
+            autoSubmitSweeper.schedule(submission, event);
+            countdownHub.track(submission);
+        } catch (DuplicateKeyException e) {
+            // A second start request from the same student won the race; resume that session
+        }
+
+        return questionSnapshots.get(eventId);
     }
 
-    public McqResultDTO submitTest(String studentId,
-                                   String eventId,
-                                   SubmitMcqRequestDTO request) {
+    // Graded in a batch by McqGradingPipeline; completes once the result is persisted
+    public CompletableFuture<McqResultDTO> submitTest(String studentId,
+                                                      String eventId,
+                                                      SubmitMcqRequestDTO request) {
 
         if (request == null || request.getAnswers() == null) {
             request = new SubmitMcqRequestDTO();
             request.setAnswers(new ArrayList<>());
         }
 
-        McqSubmission submission = submissionRepository
-                .findTopByStudentIdAndEventIdOrderByStartTimeDesc(studentId, eventId)
-                .orElseThrow(() -> new TestNotStartedException("Test not started"));
+        return gradingPipeline.submit(studentId, eventId, request.getAnswers());
+    }
 
-        if ("COMPLETED".equals(submission.getStatus())) {
-            throw new TestAlreadySubmittedException("Test already submitted");
+    // Buffered in memory and written by McqAutosaveBuffer; the session state is checked when it flushes
+    public void autosave(String studentId, String eventId, Answer answer) {
 
+        if (answer == null || answer.getQuestionId() == null) {
+            throw new IllegalArgumentException("Question id is required");
         }
-
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new EventNotFoundException("Event not found"));
-
-        if (submission.getStartTime() == null) {
-            submission.setStartTime(Instant.now());
+        if (questionSnapshots.get(eventId).getAnswerKey().positionOf(answer.getQuestionId()) < 0) {
+            throw new IllegalArgumentException("Invalid question");
         }
 
-        Instant now = Instant.now();
-
-        long minutesElapsed = Duration.between(
-                submission.getStartTime(),
-                now
-        ).toMinutes();
-
-        if (event.getDurationInMinutes() != null &&
-                minutesElapsed > event.getDurationInMinutes()) {
-            submission.setStatus("AUTO_SUBMITTED");
-        }
+        autosaveBuffer.record(eventId, studentId, answer.getQuestionId(), answer.getSelectedOption());
+    }
 
-        List<McqQuestion> questions = questionRepository.findByEventId(eventId);
+    // Saved choices including ones not flushed yet, for restoring the test after a reconnect
+    public Map<String, Integer> getSavedAnswers(String studentId, String eventId) {
 
-        Map<String, McqQuestion> questionMap =
-                questions.stream()
-                        .collect(Collectors.toMap(McqQuestion::getId, q -> q));
+        McqSubmission submission = submissionRepository
+                .findTopByStudentIdAndEventIdOrderByStartTimeDesc(studentId, eventId)
+                .orElseThrow(() ->
+                        new TestNotStartedException("Test not started"));
 
-        if (request.getAnswers().size() > questionMap.size()) {
-            throw new IllegalArgumentException("Invalid number of answers submitted");
+        Map<String, Integer> saved = new HashMap<>();
+        if (submission.getAutosavedAnswers() != null) {
+            saved.putAll(submission.getAutosavedAnswers());
         }
-
-        double totalScore = 0.0;
-        int correct = 0;
-        int wrong = 0;
-
-        for (Answer ans : request.getAnswers()) {
-
-            if (ans == null || ans.getQuestionId() == null) {
-                continue;
-            }
-
-            McqQuestion question = questionMap.get(ans.getQuestionId());
-            if (question == null) {
-                throw new IllegalArgumentException("Invalid question detected in submission");
-            }
-
-
-            Integer selectedOption = ans.getSelectedOption();
-            Integer correctOption = question.getCorrectOption();
-
-            if (selectedOption != null &&
-                    correctOption != null &&
-                    selectedOption.equals(correctOption)) {
-
-                totalScore += Optional.ofNullable(question.getMarks()).orElse(0.0);
-                correct++;
-
+        autosaveBuffer.pendingFor(eventId, studentId).forEach((questionId, option) -> {
+            if (option == null) {
+                saved.remove(questionId);
             } else {
-
-                wrong++;
-
-                Double negative = question.getNegativeMarks();
-                if (negative != null) {
-                    totalScore -= negative;
-                }
+                saved.put(questionId, option);
             }
-        }
-
-        if (totalScore < 0) totalScore = 0;
-
-        submission.setSubmittedAt(now);
-        submission.setAnswers(request.getAnswers());
-        submission.setTotalScore(totalScore);
-        submission.setCorrectCount(correct);
-        submission.setWrongCount(wrong);
-        submission.setStatus("COMPLETED");
-
-        submissionRepository.save(submission);
-
-        int rank = calculateRank(eventId, studentId);
-
-        return new McqResultDTO((int) totalScore, correct, wrong, rank);
-    }
-
-    // ==========================
-    // LEADERBOARD RANK
-    // ==========================
-    private int calculateRank(String eventId, String studentId) {
-
-        List<McqSubmission> submissions =
-                submissionRepository.findByEventIdOrderByTotalScoreDescSubmittedAtAsc(eventId);
-
-        for (int i = 0; i < submissions.size(); i++) {
-            if (studentId.equals(submissions.get(i).getStudentId())) {
-                return i + 1;
-            }
-        }
-
-        return submissions.size();
+        });
+        return saved;
     }
 
     // ==========================
@@ -223,7 +157,7 @@ public class McqService {
     // ==========================
     public RemainingTimeResponseDTO getRemainingTime(String studentId, String eventId) {
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found"));
 
         registrationRepository
@@ -260,12 +194,9 @@ public class McqService {
 
         long remainingSeconds = totalAllowedSeconds - elapsedSeconds;
 
+        // Grading an expired session is McqAutoSubmitSweeper's job; this only reports it
         if (remainingSeconds <= 0) {
 
-            submission.setStatus("AUTO_SUBMITTED");
-            submission.setSubmittedAt(now);
-            submissionRepository.save(submission);
-
             return new RemainingTimeResponseDTO(
                     0,
                     "AUTO_SUBMITTED",
@@ -285,78 +216,151 @@ public class McqService {
     // ==========================
     // ADMIN ANALYTICS
     // ==========================
+    // Served from the running McqScoreStats and McqRankIndex; no submission is read
     public AdminEventAnalyticsDTO getEventAnalytics(String eventId) {
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventCache.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found"));
 
         long totalRegistrations =
                 registrationRepository.countByEventId(eventId);
 
-        List<McqSubmission> submissions =
-                submissionRepository.findByEventIdOrderByTotalScoreDescSubmittedAtAsc(eventId);
+        int passMarks = (int) (event.getTotalMarks() * 0.4);
 
-        long totalAttempts = submissions.stream()
-                .filter(s -> "COMPLETED".equals(s.getStatus()) ||
-                        "AUTO_SUBMITTED".equals(s.getStatus()))
-                .count();
+        McqScoreStats.Summary summary =
+                scoreStats.summarize(eventId, passMarks, event.getTotalMarks());
 
+        long totalAttempts = summary.attempts();
         long totalAbsent = totalRegistrations - totalAttempts;
 
-        if (submissions.isEmpty()) {
-            return new AdminEventAnalyticsDTO(
-                    totalRegistrations,
-                    0,
-                    totalRegistrations,
-                    0.0,
-                    0.0,
-                    0.0,
-                    0,
-                    List.of()
+        double passPercentage =
+                totalAttempts == 0 ? 0 :
+                        (summary.passCount() * 100.0) / totalAttempts;
+
+        List<McqRankIndex.Ranked> top = rankIndex.top(eventId, 10);
+
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(top.stream().map(McqRankIndex.Ranked::studentId).toList())
+                .forEach(user -> users.put(user.getId(), user));
+
+        List<TopPerformerDTO> topPerformers = new ArrayList<>();
+
+        for (int i = 0; i < top.size(); i++) {
+
+            McqRankIndex.Ranked r = top.get(i);
+            User user = users.get(r.studentId());
+
+            topPerformers.add(
+                    new TopPerformerDTO(
+                            r.studentId(),
+                            user != null ? user.getUsername() : "Unknown",
+                            user != null ? user.getRollNumber() : "N/A",
+                            r.score(),
+                            i + 1
+                    )
             );
         }
 
-        List<Double> scores = submissions.stream()
-                .map(McqSubmission::getTotalScore)
-                .filter(Objects::nonNull)
-                .toList();
+        return new AdminEventAnalyticsDTO(
+                totalRegistrations,
+                totalAttempts,
+                totalAbsent,
+                summary.average(),
+                summary.highest(),
+                summary.lowest(),
+                passPercentage,
+                topPerformers,
+                summary.median(),
+                summary.p90(),
+                summary.stdDev(),
+                summary.distribution()
+        );
+    }
 
-        Double highestScore = scores.stream().max(Double::compareTo).orElse(0.0);
-        Double lowestScore = scores.stream().min(Double::compareTo).orElse(0.0);
+    // One aggregation over the event's submissions, so the export is read from Mongo itself
+    public AdminEventAnalyticsDTO getEventAnalyticsForPdf(String eventId) {
+
+        Event event = eventCache.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found"));
 
-        double averageScore = scores.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        long totalRegistrations =
+                registrationRepository.countByEventId(eventId);
 
         int passMarks = (int) (event.getTotalMarks() * 0.4);
 
-        long passCount = scores.stream()
-                .filter(score -> score >= passMarks)
-                .count();
+        Criteria scored = Criteria.where("totalScore").ne(null);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("eventId").is(eventId)),
+                Aggregation.facet(
+                                Aggregation.group("status").count().as("count"))
+                        .as("statusCounts")
+                        .and(
+                                Aggregation.match(scored),
+                                Aggregation.group()
+                                        .avg("totalScore").as("average")
+                                        .max("totalScore").as("highest")
+                                        .min("totalScore").as("lowest")
+                                        .sum(ConditionalOperators
+                                                .when(Criteria.where("totalScore").gte(passMarks))
+                                                .then(1).otherwise(0)).as("passCount"))
+                        .as("scores")
+                        .and(
+                                Aggregation.match(scored),
+                                Aggregation.sort(Sort.by(Sort.Order.desc("totalScore"), Sort.Order.asc("submittedAt"))),
+                                Aggregation.limit(10),
+                                // users._id is an ObjectId while studentId is stored as a string
+                                context -> new Document("$addFields", new Document("studentOid",
+                                        new Document("$convert", new Document("input", "$studentId")
+                                                .append("to", "objectId")
+                                                .append("onError", null)
+                                                .append("onNull", null)))),
+                                Aggregation.lookup("users", "studentOid", "_id", "user"),
+                                Aggregation.project("studentId", "totalScore")
+                                        .and("user.username").arrayElementAt(0).as("username")
+                                        .and("user.rollNumber").arrayElementAt(0).as("rollNumber"))
+                        .as("topPerformers"));
+
+        Document report = mongoTemplate
+                .aggregate(aggregation, mongoTemplate.getCollectionName(McqSubmission.class), Document.class)
+                .getUniqueMappedResult();
+
+        long totalAttempts = 0;
+        for (Document status : report.getList("statusCounts", Document.class)) {
+            if ("COMPLETED".equals(status.get("_id")) || "AUTO_SUBMITTED".equals(status.get("_id"))) {
+                totalAttempts += ((Number) status.get("count")).longValue();
+            }
+        }
+
+        long totalAbsent = totalRegistrations - totalAttempts;
+
+        List<Document> scoreStats = report.getList("scores", Document.class);
+        Document stats = scoreStats.isEmpty() ? new Document() : scoreStats.get(0);
+
+        double averageScore = number(stats.get("average"));
+        double highestScore = number(stats.get("highest"));
+        double lowestScore = number(stats.get("lowest"));
+        long passCount = (long) number(stats.get("passCount"));
 
         double passPercentage =
                 totalAttempts == 0 ? 0 :
                         (passCount * 100.0) / totalAttempts;
 
         List<TopPerformerDTO> topPerformers = new ArrayList<>();
+        List<Document> top = report.getList("topPerformers", Document.class);
 
-        for (int i = 0; i < Math.min(10, submissions.size()); i++) {
+        for (int i = 0; i < top.size(); i++) {
 
-            McqSubmission s = submissions.get(i);
-
-            if (s.getTotalScore() == null) continue;
-
-            User user = userRepository.findById(s.getStudentId()).orElse(null);
-            String username = user != null ? user.getUsername() : "Unknown";
-            String rollNumber = user != null ? user.getRollNumber() : "N/A";
+            Document s = top.get(i);
+            String username = s.getString("username");
+            String rollNumber = s.getString("rollNumber");
 
             topPerformers.add(
                     new TopPerformerDTO(
-                            s.getStudentId(),
-                            username,
-                            rollNumber,
-                            s.getTotalScore(),
+                            s.getString("studentId"),
+                            username != null ? username : "Unknown",
+                            rollNumber != null ? rollNumber : "N/A",
+                            number(s.get("totalScore")),
                             i + 1
                     )
             );
@@ -370,26 +374,23 @@ public class McqService {
                 highestScore,
                 lowestScore,
                 passPercentage,
-                topPerformers
+                topPerformers,
+                null,
+                null,
+                null,
+                null
         );
     }
 
-    public AdminEventAnalyticsDTO getEventAnalyticsForPdf(String eventId) {
-        return getEventAnalytics(eventId);
+    private static double number(Object value) {
+        return value instanceof Number n ? n.doubleValue() : 0.0;
     }
 
     public McqResultDTO getUserResult(String studentId, String eventId) {
         McqSubmission submission = submissionRepository.findTopByStudentIdAndEventIdOrderByStartTimeDesc(studentId, eventId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
 
-        List<McqSubmission> allSubs = submissionRepository.findByEventIdOrderByTotalScoreDescSubmittedAtAsc(eventId);
-        int rank = 0;
-        for (int i = 0; i < allSubs.size(); i++) {
-            if (allSubs.get(i).getStudentId().equals(studentId)) {
-                rank = i + 1;
-                break;
-            }
-        }
+        int rank = rankIndex.rankOf(eventId, studentId);
 
         return new McqResultDTO(
                 submission.getTotalScore() != null ? submission.getTotalScore().intValue() : 0,
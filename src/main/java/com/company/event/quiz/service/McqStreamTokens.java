@@ -0,0 +1,88 @@
+package com.company.event.quiz.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Signed tokens for streams opened with EventSource, which cannot send the
+ * Basic credentials. A token names one student's session of one event and
+ * expires with it; it is HMAC-signed, so nothing is stored server side.
+ *
+ * Without mcq.countdown.token-secret the key is random per process, and a
+ * restart makes clients fetch a new token.
+ */
+@Component
+public class McqStreamTokens {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    public McqStreamTokens(@Value("${mcq.countdown.token-secret:}") String secret) {
+        byte[] bytes;
+        if (secret.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(bytes, "HmacSHA256");
+    }
+
+    public String issue(String eventId, String studentId, Instant expiresAt) {
+        String subject = ENCODER.encodeToString(studentId.getBytes(StandardCharsets.UTF_8));
+        String payload = subject + "." + expiresAt.getEpochSecond();
+        return payload + "." + ENCODER.encodeToString(sign(eventId, payload));
+    }
+
+    /**
+     * @return the student the token was issued to
+     * @throws ResponseStatusException 401 if the token is malformed, expired or for another event
+     */
+    public String verify(String token, String eventId) {
+
+        String[] parts = token == null ? new String[0] : token.split("\\.");
+        if (parts.length != 3) {
+            throw invalid();
+        }
+        try {
+            String payload = parts[0] + "." + parts[1];
+            if (!MessageDigest.isEqual(sign(eventId, payload), DECODER.decode(parts[2]))) {
+                throw invalid();
+            }
+            if (Instant.now().isAfter(Instant.ofEpochSecond(Long.parseLong(parts[1])))) {
+                throw invalid();
+            }
+            return new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // Bad Base64 or expiry
+            throw invalid();
+        }
+    }
+
+    private byte[] sign(String eventId, String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal((eventId + "|" + payload).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired stream token");
+    }
+}
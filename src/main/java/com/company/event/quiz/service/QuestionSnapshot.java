@@ -0,0 +1,248 @@
+package com.company.event.quiz.service;
+
+import com.company.event.quiz.dto.QuestionResponseDTO;
+import com.company.event.quiz.model.Answer;
+import com.company.event.quiz.model.McqQuestion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Everything the MCQ hot path needs about an event's questions, built once
+ * and shared by every request: the question list as students see it (no
+ * answers), the same list already rendered to JSON (plain and gzip), and an
+ * answer key for grading. Never modified after construction;
+ * QuestionSnapshotCache replaces the whole snapshot when questions change.
+ */
+public final class QuestionSnapshot {
+
+    private final List<QuestionResponseDTO> questions;
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final AnswerKey answerKey;
+
+    private QuestionSnapshot(List<QuestionResponseDTO> questions, byte[] json, AnswerKey answerKey) {
+        this.questions = questions;
+        this.json = json;
+        this.gzippedJson = gzip(json);
+        this.answerKey = answerKey;
+    }
+
+    public static QuestionSnapshot of(List<McqQuestion> source, ObjectMapper objectMapper) {
+
+        List<QuestionResponseDTO> questions = new ArrayList<>(source.size());
+        for (McqQuestion q : source) {
+            questions.add(new QuestionResponseDTO(
+                    q.getId(),
+                    q.getQuestionText(),
+                    q.getOptions() == null ? null : List.copyOf(q.getOptions()),
+                    q.getMarks(),
+                    q.getNegativeMarks()
+            ));
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(questions);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize questions", e);
+        }
+
+        return new QuestionSnapshot(Collections.unmodifiableList(questions), json, new AnswerKey(source));
+    }
+
+    // Shared between requests: serialize it, never modify it
+    public List<QuestionResponseDTO> getQuestions() {
+        return questions;
+    }
+
+    // Written to responses as-is; callers must not modify the arrays
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+
+    public AnswerKey getAnswerKey() {
+        return answerKey;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Question id to position, then flat arrays by position, so grading a
+     * submission is one map lookup and a few array reads per answer.
+     */
+    public static final class AnswerKey {
+
+        private static final int NO_CORRECT_OPTION = -1;
+
+        private final Map<String, Integer> positions;
+        private final int[] correctOptions;
+        private final double[] marks;
+        private final double[] negativeMarks;
+
+        private AnswerKey(List<McqQuestion> source) {
+            int size = source.size();
+            Map<String, Integer> positions = new HashMap<>(size * 2);
+            this.correctOptions = new int[size];
+            this.marks = new double[size];
+            this.negativeMarks = new double[size];
+
+            for (int i = 0; i < size; i++) {
+                McqQuestion q = source.get(i);
+                positions.put(q.getId(), i);
+                correctOptions[i] = q.getCorrectOption() == null ? NO_CORRECT_OPTION : q.getCorrectOption();
+                marks[i] = q.getMarks() == null ? 0.0 : q.getMarks();
+                negativeMarks[i] = q.getNegativeMarks() == null ? 0.0 : q.getNegativeMarks();
+            }
+            this.positions = Map.copyOf(positions);
+        }
+
+        public int size() {
+            return correctOptions.length;
+        }
+
+        /**
+         * @return the question's position, or -1 if it is not part of the event
+         */
+        public int positionOf(String questionId) {
+            Integer position = positions.get(questionId);
+            return position == null ? -1 : position;
+        }
+
+        // A missing selection or a question without a correct option never counts as correct
+        public boolean isCorrect(int position, Integer selectedOption) {
+            int correct = correctOptions[position];
+            return selectedOption != null && correct != NO_CORRECT_OPTION && selectedOption == correct;
+        }
+
+        public Integer correctOption(int position) {
+            int correct = correctOptions[position];
+            return correct == NO_CORRECT_OPTION ? null : correct;
+        }
+
+        public double marks(int position) {
+            return marks[position];
+        }
+
+        public double negativeMarks(int position) {
+            return negativeMarks[position];
+        }
+
+        /**
+         * Scores a set of answers. An answer without a selected option
+         * counts as wrong, wrong answers cost their negative marks, and the
+         * total never goes below zero.
+         *
+         * @throws IllegalArgumentException for too many answers or an unknown question
+         */
+        public Grade grade(List<Answer> answers) {
+
+            if (answers.size() > size()) {
+                throw new IllegalArgumentException("Invalid number of answers submitted");
+            }
+            return score(answers, true, null, 0);
+        }
+
+        // For answers saved earlier, whose questions may since have been deleted
+        public Grade gradeIgnoringUnknown(List<Answer> answers) {
+            return score(answers, false, null, 0);
+        }
+
+        // Same as above, written into slot of a reused buffer instead of a new Grade
+        public void gradeIgnoringUnknown(List<Answer> answers, GradeBuffer out, int slot) {
+            score(answers, false, out, slot);
+        }
+
+        private Grade score(List<Answer> answers, boolean strict, GradeBuffer out, int slot) {
+
+            double totalScore = 0.0;
+            int correct = 0;
+            int wrong = 0;
+
+            for (Answer ans : answers) {
+
+                if (ans == null || ans.getQuestionId() == null) {
+                    continue;
+                }
+
+                int position = positionOf(ans.getQuestionId());
+                if (position < 0) {
+                    if (!strict) continue;
+                    throw new IllegalArgumentException("Invalid question detected in submission");
+                }
+
+                if (isCorrect(position, ans.getSelectedOption())) {
+                    totalScore += marks[position];
+                    correct++;
+                } else {
+                    wrong++;
+                    totalScore -= negativeMarks[position];
+                }
+            }
+
+            if (totalScore < 0) totalScore = 0;
+
+            if (out == null) {
+                return new Grade(totalScore, correct, wrong);
+            }
+            out.totalScores[slot] = totalScore;
+            out.correct[slot] = correct;
+            out.wrong[slot] = wrong;
+            return null;
+        }
+    }
+
+    public record Grade(double totalScore, int correct, int wrong) {
+    }
+
+    /**
+     * Grades of a batch of submissions in flat arrays, reused batch after
+     * batch by bulk jobs so they do not allocate a Grade per submission.
+     * Each slot may be written by a different thread.
+     */
+    public static final class GradeBuffer {
+
+        private final double[] totalScores;
+        private final int[] correct;
+        private final int[] wrong;
+
+        public GradeBuffer(int capacity) {
+            this.totalScores = new double[capacity];
+            this.correct = new int[capacity];
+            this.wrong = new int[capacity];
+        }
+
+        public double totalScore(int slot) {
+            return totalScores[slot];
+        }
+
+        public int correct(int slot) {
+            return correct[slot];
+        }
+
+        public int wrong(int slot) {
+            return wrong[slot];
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.exception.EventNotFoundException;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.repository.McqQuestionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One QuestionSnapshot per event. Built on first use, then swapped whole by
+ * QuestionController whenever the event's questions change, so readers
+ * always see either the old set or the new one. Dropped again once the
+ * event is over (see {@link EventRetirement}).
+ */
+@Component
+@RequiredArgsConstructor
+public class QuestionSnapshotCache {
+
+    private final McqQuestionRepository questionRepository;
+    private final EntityCache<Event> eventCache;
+    private final EventRetirement retirement;
+    // The MVC ObjectMapper, so the pre-rendered JSON matches what a controller would write
+    private final ObjectMapper objectMapper;
+    private final Map<String, QuestionSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public QuestionSnapshot get(String eventId) {
+        QuestionSnapshot snapshot = snapshots.get(eventId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        // Unknown ids would otherwise each leave an empty snapshot behind
+        if (eventCache.findById(eventId).isEmpty()) {
+            throw new EventNotFoundException("Event not found");
+        }
+        // Concurrent first requests for an event wait for a single load
+        return snapshots.computeIfAbsent(eventId, this::load);
+    }
+
+    // Call after the event's questions were written. Loading inside compute
+    // serializes refreshes per event, so an older load never overwrites a newer one
+    public void refresh(String eventId) {
+        snapshots.compute(eventId, (id, previous) -> load(id));
+    }
+
+    public void evict(String eventId) {
+        snapshots.remove(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${mcq.retire-check-ms:60000}")
+    public void retireFinished() {
+        snapshots.keySet().removeIf(retirement::isRetired);
+    }
+
+    private QuestionSnapshot load(String eventId) {
+        return QuestionSnapshot.of(questionRepository.findByEventId(eventId), objectMapper);
+    }
+}
@@ -3,6 +3,7 @@ package com.company.event.security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -44,6 +45,7 @@ public class SecurityConfig {
                         .requestMatchers("/contest/insert/**").hasRole("ADMIN")
                         .requestMatchers("/leaderboard/**").permitAll()
                         .requestMatchers("/submission/**").permitAll()
+                        .requestMatchers("/problem/admin/**").hasRole("ADMIN")
                         .requestMatchers("/problem/getById/**").permitAll()
                         .requestMatchers("/problem/getAll/**").permitAll()
                         .requestMatchers("/problem/delete/**").hasRole("ADMIN")
@@ -57,11 +59,18 @@ public class SecurityConfig {
                         .requestMatchers("/api/registrations/**").permitAll()
                         .requestMatchers("/api/mcq/admin/analytics/**").hasRole("ADMIN")
                         .requestMatchers("/api/mcq/admin/analytics/pdf/**").hasRole("ADMIN")
+                        .requestMatchers("/api/mcq/admin/item-analysis/**").hasRole("ADMIN")
+                        .requestMatchers("/api/mcq/admin/regrade/**").hasRole("ADMIN")
                         .requestMatchers("/api/mcq/start/**").permitAll()
                         .requestMatchers("/api/mcq/submit/**").permitAll()
                         .requestMatchers("/api/mcq/remaining-time/**").permitAll()
+                        .requestMatchers("/api/mcq/countdown/*/token").authenticated()
+                        .requestMatchers("/api/mcq/countdown/**").permitAll()
                         .requestMatchers("/api/questions/addQues/**").hasRole("ADMIN")
                         .requestMatchers("/api/questions/addQues/bulk/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/questions/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
 
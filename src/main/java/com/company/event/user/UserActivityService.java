@@ -1,13 +1,13 @@
 package com.company.event.user;
 
+import com.company.event.cache.EntityCache;
 import com.company.event.quiz.model.Event;
 import com.company.event.quiz.model.EventRegistration;
 import com.company.event.quiz.model.McqSubmission;
 import com.company.event.quiz.repository.EventRegistrationRepository;
-import com.company.event.quiz.repository.EventRepository;
 import com.company.event.quiz.repository.McqSubmissionRepository;
+import com.company.event.quiz.service.McqRankIndex;
 import com.company.event.contestPackage.contest.Contest;
-import com.company.event.contestPackage.contest.ContestRepository;
 import com.company.event.contestPackage.submission.Submission;
 import com.company.event.contestPackage.submission.SubmissionRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,9 +23,10 @@ public class UserActivityService {
 
     private final EventRegistrationRepository registrationRepository;
     private final McqSubmissionRepository mcqSubmissionRepository;
-    private final EventRepository eventRepository;
-    private final ContestRepository contestRepository;
+    private final EntityCache<Event> eventCache;
+    private final EntityCache<Contest> contestCache;
     private final SubmissionRepository submissionRepository;
+    private final McqRankIndex mcqRankIndex;
 
     public UserActivityDTO getUserActivity(String userId) {
         return UserActivityDTO.builder()
@@ -41,7 +42,7 @@ public class UserActivityService {
         for (EventRegistration reg : registrations) {
             if (reg.getEventId() == null) continue;
             
-            Event event = eventRepository.findById(reg.getEventId()).orElse(null);
+            Event event = eventCache.findById(reg.getEventId()).orElse(null);
             if (event == null) continue;
 
             Optional<McqSubmission> submissionOpt = mcqSubmissionRepository.findTopByStudentIdAndEventIdOrderByStartTimeDesc(studentId, reg.getEventId());
@@ -62,16 +63,7 @@ public class UserActivityService {
                 
                 // Calculate rank
                 try {
-                    List<McqSubmission> allSubs = mcqSubmissionRepository.findByEventIdOrderByTotalScoreDescSubmittedAtAsc(event.getId());
-                    if (allSubs != null) {
-                        for (int i = 0; i < allSubs.size(); i++) {
-                            McqSubmission s = allSubs.get(i);
-                            if (s != null && s.getStudentId() != null && s.getStudentId().equals(studentId)) {
-                                activity.setRank(i + 1);
-                                break;
-                            }
-                        }
-                    }
+                    activity.setRank(mcqRankIndex.rankOf(event.getId(), studentId));
                 } catch (Exception e) {
                     // Log or handle rank calculation error gracefully
                 }
@@ -104,7 +96,7 @@ public class UserActivityService {
             String contestId = entry.getKey();
             List<Submission> subs = entry.getValue();
 
-            Contest contest = contestRepository.findById(contestId).orElse(null);
+            Contest contest = contestCache.findById(contestId).orElse(null);
             if (contest == null) continue;
 
             // Group by problem and get best score per problem
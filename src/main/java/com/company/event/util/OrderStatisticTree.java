@@ -0,0 +1,196 @@
+package com.company.event.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sorted set that also answers "how many keys come before this one" and
+ * "which key is at position i" in O(log n) expected time. Implemented as a
+ * treap whose nodes carry their subtree size.
+ *
+ * Keys must be distinct under the comparator. Not thread-safe.
+ */
+public class OrderStatisticTree<K> {
+
+    private final Comparator<? super K> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<K> root;
+
+    public OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean contains(K key) {
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, node.key);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * @return false if an equal key is already present
+     */
+    public boolean add(K key) {
+        if (contains(key)) {
+            return false;
+        }
+        Node<K>[] parts = split(root, key);
+        root = merge(merge(parts[0], new Node<>(key, random.nextInt())), parts[1]);
+        return true;
+    }
+
+    public boolean remove(K key) {
+        if (!contains(key)) {
+            return false;
+        }
+        Node<K>[] parts = split(root, key);
+        // parts[1] starts with the key itself; drop its first element
+        root = merge(parts[0], removeFirst(parts[1]));
+        return true;
+    }
+
+    /**
+     * Number of keys strictly less than the given one, whether or not it is present.
+     */
+    public int rank(K key) {
+        int rank = 0;
+        Node<K> node = root;
+        while (node != null) {
+            if (comparator.compare(key, node.key) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * @param index 0-based position in sorted order
+     */
+    public K get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node<K> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.key;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Keys at positions [from, to) in sorted order, in O(log n + to - from).
+     */
+    public List<K> range(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size(), to);
+        List<K> keys = new ArrayList<>(Math.max(0, to - from));
+        if (from < to) {
+            collect(root, 0, from, to, keys);
+        }
+        return keys;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    private void collect(Node<K> node, int offset, int from, int to, List<K> out) {
+        if (node == null) {
+            return;
+        }
+        int position = offset + size(node.left);
+        if (from < position) {
+            collect(node.left, offset, from, to, out);
+        }
+        if (position >= from && position < to) {
+            out.add(node.key);
+        }
+        if (position + 1 < to) {
+            collect(node.right, position + 1, from, to, out);
+        }
+    }
+
+    // Splits into keys < key and keys >= key
+    @SuppressWarnings("unchecked")
+    private Node<K>[] split(Node<K> node, K key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (comparator.compare(node.key, key) < 0) {
+            Node<K>[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node<K>[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private Node<K> merge(Node<K> left, Node<K> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<K> removeFirst(Node<K> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeFirst(node.left);
+        update(node);
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static final class Node<K> {
+        final K key;
+        final int priority;
+        int size = 1;
+        Node<K> left;
+        Node<K> right;
+
+        Node(K key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+    }
+}
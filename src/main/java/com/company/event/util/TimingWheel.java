@@ -0,0 +1,123 @@
+package com.company.event.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: items are bucketed by the tick their deadline falls
+ * in, so scheduling is O(1) and each tick only looks at one bucket, no
+ * matter how many items are pending. Deadlines further out than one turn
+ * of the wheel carry a round count that is decremented on every pass.
+ *
+ * Deadlines are rounded up to the next tick; an item whose deadline has
+ * already passed comes out on the next {@link #advance}. An item is on the
+ * wheel at most once: scheduling it again replaces its deadline. Cancelled
+ * slots are only flagged and dropped when their bucket comes round.
+ * Thread-safe.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<Slot<T>>[] buckets;
+    private final Map<T, Slot<T>> scheduled = new HashMap<>();
+    private long currentTick;
+    private int pending;
+    private int cancelled;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, int wheelSize, Instant start) {
+        this.tickMillis = tick.toMillis();
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.currentTick = start.toEpochMilli() / tickMillis;
+    }
+
+    public synchronized void schedule(T item, Instant deadline) {
+        long tick = Math.max(Math.ceilDiv(deadline.toEpochMilli(), tickMillis), currentTick + 1);
+        long rounds = (tick - currentTick - 1) / buckets.length;
+        Slot<T> slot = new Slot<>(item, rounds);
+        buckets[(int) (tick % buckets.length)].add(slot);
+        Slot<T> previous = scheduled.put(item, slot);
+        if (previous != null) {
+            previous.cancelled = true;
+            cancelled++;
+        } else {
+            pending++;
+        }
+    }
+
+    /**
+     * @return false if the item was not on the wheel
+     */
+    public synchronized boolean cancel(T item) {
+        Slot<T> slot = scheduled.remove(item);
+        if (slot == null) {
+            return false;
+        }
+        slot.cancelled = true;
+        cancelled++;
+        pending--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to now and returns every item whose deadline was reached.
+     */
+    public synchronized List<T> advance(Instant now) {
+        long target = now.toEpochMilli() / tickMillis;
+        List<T> due = new ArrayList<>();
+
+        while (currentTick < target && pending > 0) {
+            currentTick++;
+            Iterator<Slot<T>> slots = buckets[(int) (currentTick % buckets.length)].iterator();
+            while (slots.hasNext()) {
+                Slot<T> slot = slots.next();
+                if (slot.cancelled) {
+                    slots.remove();
+                    cancelled--;
+                } else if (slot.rounds == 0) {
+                    due.add(slot.item);
+                    slots.remove();
+                    scheduled.remove(slot.item);
+                    pending--;
+                } else {
+                    slot.rounds--;
+                }
+            }
+        }
+        // Nothing left to visit; jump straight to now
+        if (currentTick < target) {
+            // Only cancelled slots can be left, and the jump would make their rounds stale
+            if (cancelled > 0) {
+                for (List<Slot<T>> bucket : buckets) {
+                    bucket.clear();
+                }
+                cancelled = 0;
+            }
+            currentTick = target;
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+
+    private static final class Slot<T> {
+        final T item;
+        long rounds;
+        boolean cancelled;
+
+        Slot(T item, long rounds) {
+            this.item = item;
+            this.rounds = rounds;
+        }
+    }
+}
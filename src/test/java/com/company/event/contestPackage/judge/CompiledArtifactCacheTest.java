@@ -0,0 +1,116 @@
+package com.company.event.contestPackage.judge;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledArtifactCacheTest {
+
+    private final FakeExecutor executor = new FakeExecutor();
+    private final CompiledArtifactCache cache = new CompiledArtifactCache(executor, new SimpleMeterRegistry(), 2);
+
+    @Test
+    void identicalSourceIsCompiledOnce() {
+        CompiledProgram first = cache.acquire("int main() {}", "cpp");
+        cache.release(first);
+        CompiledProgram second = cache.acquire("int main() {}", "CPP");
+
+        assertSame(first, second);
+        assertEquals(1, executor.compiles);
+    }
+
+    @Test
+    void languageIsPartOfTheKey() {
+        cache.acquire("print(1)", "python");
+        cache.acquire("print(1)", "java");
+
+        assertEquals(2, executor.compiles);
+    }
+
+    @Test
+    void failedCompilesAreCachedToo() {
+        CompiledProgram failed = cache.acquire("broken", "c");
+        cache.release(failed);
+
+        assertFalse(failed.isCompiled());
+        assertSame(failed, cache.acquire("broken", "c"));
+        assertEquals(1, executor.compiles);
+    }
+
+    @Test
+    void evictedProgramIsDiscardedOnlyAfterItsLastRelease() {
+        CompiledProgram running = cache.acquire("a", "c");
+        cache.release(cache.acquire("b", "c"));
+        cache.release(cache.acquire("c", "c"));
+
+        // "a" is out of the cache but still in use
+        assertTrue(executor.discarded.isEmpty());
+        cache.release(running);
+        assertEquals(List.of(running), executor.discarded);
+
+        CompiledProgram recompiled = cache.acquire("a", "c");
+        assertNotSame(running, recompiled);
+    }
+
+    @Test
+    void unusedEvictedProgramIsDiscardedRightAway() {
+        CompiledProgram first = cache.acquire("a", "c");
+        cache.release(first);
+        cache.release(cache.acquire("b", "c"));
+        cache.release(cache.acquire("c", "c"));
+
+        assertEquals(List.of(first), executor.discarded);
+    }
+
+    @Test
+    void placeholderCompilesAreNeverCached() {
+        executor.separately = false;
+
+        CompiledProgram first = cache.acquire("a", "c");
+        cache.release(first);
+        CompiledProgram second = cache.acquire("a", "c");
+
+        assertNotSame(first, second);
+        assertEquals(2, executor.compiles);
+    }
+
+    private static class FakeExecutor implements CodeExecutor {
+
+        int compiles;
+        boolean separately = true;
+        final List<CompiledProgram> discarded = new ArrayList<>();
+
+        @Override
+        public CompiledProgram compile(String sourceCode, String language) {
+            compiles++;
+            if (sourceCode.equals("broken")) {
+                return new CompiledProgram(language, sourceCode, null, "error: expected ';'");
+            }
+            return new CompiledProgram(language, sourceCode, Path.of("build-" + compiles), null);
+        }
+
+        @Override
+        public ExecutionResult run(CompiledProgram program, String stdin) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void discard(CompiledProgram program) {
+            discarded.add(program);
+        }
+
+        @Override
+        public boolean compilesSeparately() {
+            return separately;
+        }
+    }
+}
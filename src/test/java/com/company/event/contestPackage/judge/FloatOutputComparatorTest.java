@@ -0,0 +1,67 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.problem.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloatOutputComparatorTest {
+
+    private final OutputComparator comparator = new FloatOutputComparator(1e-6);
+
+    @Test
+    void acceptsAbsoluteErrorWithinTolerance() throws IOException {
+        assertTrue(matches("0.1000009", "0.1"));
+        assertTrue(matches("-0.0000005", "0"));
+        assertFalse(matches("0.100002", "0.1"));
+    }
+
+    @Test
+    void acceptsRelativeErrorForLargeValues() throws IOException {
+        assertTrue(matches("1000000.9", "1000000"));
+        assertTrue(matches("1.0000005e12", "1e12"));
+        assertFalse(matches("1000002", "1000000"));
+    }
+
+    @Test
+    void sameValueInAnyDecimalNotation() throws IOException {
+        assertTrue(matches("1e-3", "0.001"));
+        assertTrue(matches("-0", "0"));
+        assertTrue(matches("+2.", "2.000"));
+        assertTrue(matches(".5", "0.5"));
+    }
+
+    @Test
+    void nonDecimalTokensMustBeIdentical() throws IOException {
+        assertTrue(matches("YES 0.5", "YES 0.5000001"));
+        assertFalse(matches("yes 0.5", "YES 0.5"));
+        assertTrue(matches("NaN", "NaN"));
+        assertFalse(matches("NaN", "0"));
+        assertFalse(matches("Infinity", "1e308"));
+        // Accepted by Double.parseDouble, but not how a program prints a number
+        assertFalse(matches("1f", "1"));
+        assertFalse(matches("1d", "1"));
+        assertFalse(matches("0x1p0", "1"));
+    }
+
+    @Test
+    void overflowingValuesDoNotMatchEachOther() throws IOException {
+        assertTrue(matches("1e400", "1e400"));
+        assertFalse(matches("2e400", "1e400"));
+    }
+
+    @Test
+    void tokenCountStillHasToAgree() throws IOException {
+        assertFalse(matches("1.0 2.0", "1.0"));
+        assertFalse(matches("1.0", "1.0 2.0"));
+    }
+
+    private boolean matches(String actual, String expected) throws IOException {
+        return comparator.matches(new StringReader(actual), TestCase.builder().build(),
+                () -> new StringReader(expected));
+    }
+}
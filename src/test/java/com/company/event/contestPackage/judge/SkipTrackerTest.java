@@ -0,0 +1,104 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.problem.JudgingPolicy;
+import com.company.event.contestPackage.problem.Subtask;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkipTrackerTest {
+
+    private static final TestCaseResult PASS = new TestCaseResult("ACCEPTED", 10L);
+    private static final TestCaseResult FAIL = new TestCaseResult("WRONG_ANSWER", 10L);
+
+    private static final List<Subtask> SUBTASKS = List.of(
+            Subtask.builder().name("small").points(30).testCaseIndexes(List.of(0, 1, 2)).build(),
+            Subtask.builder().name("large").points(70).testCaseIndexes(List.of(2, 3, 4)).build());
+
+    @Test
+    void runAllNeverSkips() {
+        SkipTracker tracker = new SkipTracker(3, JudgingPolicy.RUN_ALL, List.of());
+        tracker.record(0, FAIL);
+
+        assertFalse(tracker.shouldSkip(1));
+        assertEquals(List.of("WRONG_ANSWER", "ACCEPTED", "WRONG_ANSWER"),
+                verdicts(tracker.finish(new TestCaseResult[]{FAIL, PASS, FAIL})));
+    }
+
+    @Test
+    void missingPolicyMeansRunAll() {
+        SkipTracker tracker = new SkipTracker(2, null, null);
+        tracker.record(0, FAIL);
+
+        assertFalse(tracker.shouldSkip(1));
+    }
+
+    @Test
+    void failFastSkipsOnlyCasesAfterTheFirstFailure() {
+        SkipTracker tracker = new SkipTracker(4, JudgingPolicy.FAIL_FAST, List.of());
+        tracker.record(2, FAIL);
+
+        assertFalse(tracker.shouldSkip(0));
+        assertFalse(tracker.shouldSkip(2));
+        assertTrue(tracker.shouldSkip(3));
+
+        // A later failure found first does not hide an earlier case
+        tracker.record(1, FAIL);
+        assertFalse(tracker.shouldSkip(1));
+        assertTrue(tracker.shouldSkip(2));
+    }
+
+    @Test
+    void failFastOutcomeDoesNotDependOnWhatRan() {
+        // Case 3 happened to run before case 1's failure was known
+        TestCaseResult[] results = {PASS, FAIL, new TestCaseResult(SkipTracker.SKIPPED, null), PASS};
+        SkipTracker tracker = new SkipTracker(4, JudgingPolicy.FAIL_FAST, List.of());
+
+        assertEquals(List.of("ACCEPTED", "WRONG_ANSWER", "SKIPPED", "SKIPPED"),
+                verdicts(tracker.finish(results)));
+    }
+
+    @Test
+    void subtaskPolicySkipsOnlyWithinTheFailedSubtask() {
+        SkipTracker tracker = new SkipTracker(6, JudgingPolicy.SKIP_SUBTASK_ON_FAILURE, SUBTASKS);
+        tracker.record(0, FAIL);
+
+        assertTrue(tracker.shouldSkip(1));
+        // Case 2 is also in "large", which has not failed
+        assertFalse(tracker.shouldSkip(2));
+        assertFalse(tracker.shouldSkip(3));
+        // Case 5 is in no subtask
+        assertFalse(tracker.shouldSkip(5));
+    }
+
+    @Test
+    void sharedCaseIsSkippedOnceEverySubtaskHoldingItFailed() {
+        SkipTracker tracker = new SkipTracker(6, JudgingPolicy.SKIP_SUBTASK_ON_FAILURE, SUBTASKS);
+        tracker.record(1, FAIL);
+        tracker.record(2, FAIL);
+
+        assertFalse(tracker.shouldSkip(2));
+        assertTrue(tracker.shouldSkip(3));
+
+        TestCaseResult[] finished = tracker.finish(new TestCaseResult[]{PASS, FAIL, FAIL, PASS, PASS, FAIL});
+        assertEquals(List.of("ACCEPTED", "WRONG_ANSWER", "WRONG_ANSWER", "SKIPPED", "SKIPPED", "WRONG_ANSWER"),
+                verdicts(finished));
+    }
+
+    @Test
+    void finishLeavesTheInputUntouched() {
+        TestCaseResult[] results = {FAIL, PASS};
+        new SkipTracker(2, JudgingPolicy.FAIL_FAST, List.of()).finish(results);
+
+        assertEquals(List.of("WRONG_ANSWER", "ACCEPTED"), verdicts(results));
+    }
+
+    private static List<String> verdicts(TestCaseResult[] results) {
+        return Arrays.stream(results).map(TestCaseResult::getVerdict).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.company.event.contestPackage.judge;
+
+import com.company.event.contestPackage.problem.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenOutputComparatorTest {
+
+    private final OutputComparator comparator = new TokenOutputComparator();
+
+    @Test
+    void ignoresKindAndAmountOfWhitespace() throws IOException {
+        assertTrue(matches("1 2\r\n3\n", "1  2\t3"));
+        assertTrue(matches("\n\n  1 2 3  \n\n", "1 2 3"));
+        assertTrue(matches("a\r\nb\rc", "a\nb\nc"));
+    }
+
+    @Test
+    void emptyAndBlankOutputsMatch() throws IOException {
+        assertTrue(matches("", ""));
+        assertTrue(matches(" \r\n\t", ""));
+        assertFalse(matches("", "0"));
+        assertFalse(matches("0", ""));
+    }
+
+    @Test
+    void tokensMustBeIdentical() throws IOException {
+        assertFalse(matches("YES", "yes"));
+        assertFalse(matches("1.0", "1"));
+        assertFalse(matches("12", "1 2"));
+        assertFalse(matches("1 2", "12"));
+    }
+
+    @Test
+    void extraOrMissingTokensFail() throws IOException {
+        assertFalse(matches("1 2 3 4", "1 2 3"));
+        assertFalse(matches("1 2", "1 2 3"));
+    }
+
+    @Test
+    void comparesVeryLongTokensWhole() throws IOException {
+        String token = "x".repeat(20_000);
+        assertTrue(matches(token + "\n", token));
+        assertFalse(matches(token + "y", token));
+    }
+
+    private boolean matches(String actual, String expected) throws IOException {
+        return comparator.matches(new StringReader(actual), TestCase.builder().build(),
+                () -> new StringReader(expected));
+    }
+}
@@ -0,0 +1,98 @@
+package com.company.event.contestPackage.judge;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerdictCacheTest {
+
+    private static final String CODE = "print(input())\n";
+
+    private final VerdictCache cache = new VerdictCache(new SimpleMeterRegistry(), 2);
+
+    @Test
+    void returnsStoredResultsForTheSameSubmission() {
+        cache.put("p1", "d1", "python", CODE, results("ACCEPTED", "WRONG_ANSWER"));
+
+        TestCaseResult[] cached = cache.get("p1", "d1", "PYTHON", CODE + "\n\n  ");
+        assertNotNull(cached);
+        assertEquals("WRONG_ANSWER", cached[1].getVerdict());
+    }
+
+    @Test
+    void keyIncludesProblemDigestLanguageAndSource() {
+        cache.put("p1", "d1", "python", CODE, results("ACCEPTED"));
+
+        assertNull(cache.get("p2", "d1", "python", CODE));
+        assertNull(cache.get("p1", "d2", "python", CODE));
+        assertNull(cache.get("p1", "d1", "java", CODE));
+        assertNull(cache.get("p1", "d1", "python", "print(1)\n"));
+    }
+
+    @Test
+    void callersCannotChangeTheCachedArray() {
+        TestCaseResult[] stored = results("ACCEPTED");
+        cache.put("p1", "d1", "python", CODE, stored);
+        stored[0] = new TestCaseResult("WRONG_ANSWER", 1L);
+
+        TestCaseResult[] first = cache.get("p1", "d1", "python", CODE);
+        first[0] = new TestCaseResult("WRONG_ANSWER", 1L);
+
+        TestCaseResult[] second = cache.get("p1", "d1", "python", CODE);
+        assertNotSame(first, second);
+        assertEquals("ACCEPTED", second[0].getVerdict());
+    }
+
+    @Test
+    void runtimeErrorsAndTimeoutsAreNotCached() {
+        cache.put("p1", "d1", "python", CODE, results("ACCEPTED", "RUNTIME_ERROR"));
+        cache.put("p2", "d1", "python", CODE, results("TIME_LIMIT_EXCEEDED", "SKIPPED"));
+
+        assertNull(cache.get("p1", "d1", "python", CODE));
+        assertNull(cache.get("p2", "d1", "python", CODE));
+    }
+
+    @Test
+    void deterministicFailuresAreCached() {
+        cache.put("p1", "d1", "python", CODE, results("COMPILATION_ERROR", "COMPILATION_ERROR"));
+        cache.put("p2", "d1", "python", CODE, results("WRONG_ANSWER", "SKIPPED"));
+
+        assertNotNull(cache.get("p1", "d1", "python", CODE));
+        assertNotNull(cache.get("p2", "d1", "python", CODE));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondCapacity() {
+        cache.put("p1", "d1", "python", CODE, results("ACCEPTED"));
+        cache.put("p2", "d1", "python", CODE, results("ACCEPTED"));
+        cache.get("p1", "d1", "python", CODE);
+        cache.put("p3", "d1", "python", CODE, results("ACCEPTED"));
+
+        assertNotNull(cache.get("p1", "d1", "python", CODE));
+        assertNull(cache.get("p2", "d1", "python", CODE));
+        assertNotNull(cache.get("p3", "d1", "python", CODE));
+    }
+
+    @Test
+    void invalidateProblemDropsOnlyThatProblem() {
+        cache.put("p1", "d1", "python", CODE, results("ACCEPTED"));
+        cache.put("p10", "d1", "python", CODE, results("ACCEPTED"));
+
+        cache.invalidateProblem("p1");
+
+        assertNull(cache.get("p1", "d1", "python", CODE));
+        assertNotNull(cache.get("p10", "d1", "python", CODE));
+    }
+
+    private static TestCaseResult[] results(String... verdicts) {
+        TestCaseResult[] results = new TestCaseResult[verdicts.length];
+        for (int i = 0; i < verdicts.length; i++) {
+            results[i] = new TestCaseResult(verdicts[i], 5L);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,113 @@
+package com.company.event.contestPackage.leaderboard;
+
+import com.company.event.contestPackage.submission.Submission;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardAggregationTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final LeaderboardAggregation aggregation = new LeaderboardAggregation(mongoTemplate);
+    private final List<Document> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(Submission.class)).thenReturn("submissions");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("submissions"), eq(Document.class)))
+                .thenAnswer(invocation -> new AggregationResults<>(rows, new Document()));
+    }
+
+    @Test
+    void bestScorePerProblemPrefersTheEarlierSubmission() {
+        List<Document> stages = pipeline(List.of("c1"));
+
+        Document sort = stages.get(1).get("$sort", Document.class);
+        assertEquals(List.of("contestId", "userId", "problemId", "score", "submittedAt"), List.copyOf(sort.keySet()));
+        assertEquals(List.of(1, 1, 1, -1, 1), List.copyOf(sort.values()));
+
+        Document best = stages.get(3).get("$group", Document.class);
+        assertEquals(new Document("$first", "$score"), best.get("best"));
+        assertEquals(new Document("$first", "$submittedAt"), best.get("at"));
+    }
+
+    @Test
+    void usersAreOrderedByScoreThenEarliestLastSubmissionWithNoTimeLast() {
+        List<Document> stages = pipeline(List.of("c1"));
+
+        Document totals = stages.get(4).get("$group", Document.class);
+        assertEquals(new Document("$max", "$at"), totals.get("lastSubmissionTime"));
+
+        Document sort = stages.get(6).get("$sort", Document.class);
+        assertEquals(List.of("totalScore", "noTime", "lastSubmissionTime", "_id"), List.copyOf(sort.keySet()));
+        assertEquals(List.of(-1, 1, 1, 1), List.copyOf(sort.values()));
+    }
+
+    @Test
+    void severalContestsAreSummedPerUser() {
+        List<Document> stages = pipeline(List.of("c1", "c2"));
+
+        Document match = stages.get(0).get("$match", Document.class);
+        assertEquals(new Document("$in", List.of("c1", "c2")), match.get("contestId"));
+        // Totals group on the user alone, across every contest's per-problem bests
+        assertEquals("$_id.userId", stages.get(4).get("$group", Document.class).get("_id"));
+    }
+
+    @Test
+    void rowsAreRankedInOrderWithDefaultsForMissingUsers() {
+        Instant last = Instant.parse("2026-01-01T10:05:00Z");
+        rows.add(new Document("_id", "u1")
+                .append("totalScore", 30)
+                .append("problemsSolved", 2)
+                .append("lastSubmissionTime", Date.from(last))
+                .append("username", "alice")
+                .append("rollNumber", "R1")
+                .append("branch", "CSE")
+                .append("course", "BTech"));
+        rows.add(new Document("_id", "u2")
+                .append("totalScore", 30L)
+                .append("problemsSolved", 1));
+
+        List<LeaderboardEntry> entries = aggregation.compute(List.of("c1"));
+
+        assertEquals(2, entries.size());
+        LeaderboardEntry first = entries.get(0);
+        assertEquals(1, first.getRank());
+        assertEquals("alice", first.getUsername());
+        assertEquals("CSE", first.getBranch());
+        assertEquals(last, first.getLastSubmissionTime());
+        assertNull(first.getBranchRank());
+
+        LeaderboardEntry second = entries.get(1);
+        assertEquals(2, second.getRank());
+        assertEquals(30, second.getTotalScore());
+        assertEquals("Unknown", second.getUsername());
+        assertEquals("N/A", second.getRollNumber());
+        assertNull(second.getLastSubmissionTime());
+    }
+
+    private List<Document> pipeline(List<String> contestIds) {
+        aggregation.compute(contestIds);
+
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq("submissions"), eq(Document.class));
+        return captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+    }
+}
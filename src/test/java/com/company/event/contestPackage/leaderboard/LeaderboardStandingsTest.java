@@ -0,0 +1,349 @@
+package com.company.event.contestPackage.leaderboard;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.contestPackage.contest.Contest;
+import com.company.event.contestPackage.submission.Submission;
+import com.company.event.contestPackage.submission.SubmissionRepository;
+import com.company.event.user.User;
+import com.company.event.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardStandingsTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T10:00:00Z");
+    private static final LeaderboardSegment BRANCH_CSE = new LeaderboardSegment(LeaderboardSegment.Type.BRANCH, "CSE");
+    private static final LeaderboardSegment COURSE_BTECH = new LeaderboardSegment(LeaderboardSegment.Type.COURSE, "BTech");
+
+    private final SubmissionRepository submissionRepository = mock(SubmissionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LeaderboardAggregation aggregation = mock(LeaderboardAggregation.class);
+    @SuppressWarnings("unchecked")
+    private final EntityCache<Contest> contestCache = mock(EntityCache.class);
+    private final LeaderboardStandings standings =
+            new LeaderboardStandings(submissionRepository, userRepository, aggregation, contestCache);
+
+    private final List<Submission> stored = new ArrayList<>();
+    private final Map<String, User> users = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(submissionRepository.findStandingFieldsByContestId("c1")).thenAnswer(invocation -> List.copyOf(stored));
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<User> found = new ArrayList<>();
+            for (String id : invocation.<Iterable<String>>getArgument(0)) {
+                if (users.containsKey(id)) {
+                    found.add(users.get(id));
+                }
+            }
+            return found;
+        });
+        ReflectionTestUtils.setField(standings, "retireAfter", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void rankedByScoreThenEarliestLastSubmission() {
+        submit("u1", "p1", 100, 10);
+        submit("u2", "p1", 100, 5);
+        submit("u3", "p1", 150, 20);
+
+        List<LeaderboardEntry> entries = standings.entries("c1");
+
+        assertEquals(List.of("u3", "u2", "u1"), userIds(entries));
+        assertEquals(List.of(1, 2, 3), entries.stream().map(LeaderboardEntry::getRank).toList());
+    }
+
+    @Test
+    void bestScorePerProblemCountsAndTiesKeepTheEarlierSubmission() {
+        submit("u1", "p1", 50, 1);
+        submit("u1", "p1", 30, 2);
+        submit("u1", "p1", 50, 9);
+        submit("u1", "p2", 0, 3);
+        submit("u2", "p1", 50, 5);
+
+        List<LeaderboardEntry> entries = standings.entries("c1");
+
+        assertEquals(List.of("u1", "u2"), userIds(entries));
+        LeaderboardEntry first = entries.get(0);
+        assertEquals(50, first.getTotalScore());
+        assertEquals(1, first.getProblemsSolved());
+        assertEquals(at(3), first.getLastSubmissionTime());
+    }
+
+    @Test
+    void usersWithoutSubmissionTimeComeLast() {
+        stored.add(Submission.builder().userId("u1").contestId("c1").problemId("p1").score(10).build());
+        submit("u2", "p1", 10, 30);
+
+        assertEquals(List.of("u2", "u1"), userIds(standings.entries("c1")));
+    }
+
+    @Test
+    void submissionsAfterLoadMoveTheUser() {
+        submit("u1", "p1", 100, 1);
+        submit("u2", "p1", 50, 2);
+        List<LeaderboardEntry> before = standings.entries("c1");
+        long version = standings.version("c1");
+
+        assertSame(before, standings.entries("c1"));
+
+        submit("u2", "p2", 60, 3);
+
+        List<LeaderboardEntry> after = standings.entries("c1");
+        assertEquals(List.of("u2", "u1"), userIds(after));
+        assertEquals(110, after.get(0).getTotalScore());
+        assertEquals(version + 1, standings.version("c1"));
+    }
+
+    @Test
+    void lowerScoreLeavesTheStandingsUnchanged() {
+        submit("u1", "p1", 100, 1);
+        List<LeaderboardEntry> before = standings.entries("c1");
+        long version = standings.version("c1");
+
+        submit("u1", "p1", 40, 2);
+
+        assertSame(before, standings.entries("c1"));
+        assertEquals(version, standings.version("c1"));
+    }
+
+    @Test
+    void contestIsNotHeldUntilRead() {
+        submit("u1", "p1", 100, 1);
+
+        assertEquals(-1, standings.version("c1"));
+        assertEquals(1, standings.entries("c1").size());
+        assertTrue(standings.version("c1") >= 0);
+    }
+
+    @Test
+    void unknownUsersAreShownAsUnknown() {
+        submit("ghost", "p1", 10, 1);
+
+        LeaderboardEntry entry = standings.entries("c1").get(0);
+
+        assertEquals("Unknown", entry.getUsername());
+        assertEquals("N/A", entry.getRollNumber());
+        assertNull(entry.getBranchRank());
+    }
+
+    @Test
+    void finishedContestsAreRetired() {
+        submit("u1", "p1", 10, 1);
+        standings.entries("c1");
+
+        when(contestCache.findById("c1")).thenReturn(Optional.of(contest(Instant.now().plusSeconds(60))));
+        standings.retireFinished();
+        assertTrue(standings.version("c1") >= 0);
+
+        when(contestCache.findById("c1")).thenReturn(Optional.of(contest(Instant.now().minus(Duration.ofHours(1)))));
+        standings.retireFinished();
+        assertEquals(-1, standings.version("c1"));
+    }
+
+    @Test
+    void pageIsASliceOfTheLeaderboard() {
+        fiveUsers();
+
+        LeaderboardPage page = standings.page("c1", false, null, 1, 2);
+
+        assertEquals(5, page.getTotal());
+        assertEquals(1, page.getOffset());
+        assertEquals(List.of("u2", "u3"), userIds(page.getEntries()));
+        assertEquals(List.of(2, 3), page.getEntries().stream().map(LeaderboardEntry::getRank).toList());
+    }
+
+    @Test
+    void pagePastTheEndIsEmpty() {
+        fiveUsers();
+
+        LeaderboardPage page = standings.page("c1", false, null, 10, 5);
+
+        assertEquals(5, page.getTotal());
+        assertTrue(page.getEntries().isEmpty());
+    }
+
+    @Test
+    void aroundShowsNeighboursClampedAtTheTop() {
+        fiveUsers();
+
+        assertEquals(List.of("u2", "u3", "u4"), userIds(standings.around("c1", false, null, "u3", 1).getEntries()));
+        assertEquals(List.of("u1", "u2", "u3"), userIds(standings.around("c1", false, null, "u1", 2).getEntries()));
+    }
+
+    @Test
+    void aroundUserWithoutSubmissionIsNotFound() {
+        fiveUsers();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> standings.around("c1", false, null, "nobody", 1));
+        assertEquals(404, e.getStatusCode().value());
+    }
+
+    @Test
+    void finishedContestIsAggregatedOnceUntilALateVerdict() {
+        List<LeaderboardEntry> aggregated = List.of(
+                LeaderboardEntry.builder().rank(1).userId("u1").totalScore(20).build(),
+                LeaderboardEntry.builder().rank(2).userId("u2").totalScore(10).build());
+        when(aggregation.compute(List.of("c1"))).thenReturn(aggregated);
+
+        assertEquals(List.of("u2"), userIds(standings.page("c1", true, null, 1, 5).getEntries()));
+        assertEquals(List.of("u1", "u2"), userIds(standings.around("c1", true, null, "u2", 1).getEntries()));
+        verify(aggregation, times(1)).compute(List.of("c1"));
+
+        submit("u2", "p1", 30, 99);
+        standings.page("c1", true, null, 0, 5);
+
+        verify(aggregation, times(2)).compute(List.of("c1"));
+        assertEquals(-1, standings.version("c1"));
+    }
+
+    @Test
+    void finishedContestHeldInMemoryIsNotAggregated() {
+        fiveUsers();
+        standings.entries("c1");
+
+        assertEquals(5, standings.page("c1", true, null, 0, 10).getTotal());
+        verify(aggregation, never()).compute(any());
+    }
+
+    @Test
+    void segmentPageRanksUsersAmongThemselves() {
+        segmentedUsers();
+        fiveUsers();
+
+        LeaderboardPage cse = standings.page("c1", false, BRANCH_CSE, 0, 10);
+
+        assertEquals(3, cse.getTotal());
+        assertEquals(List.of("u1", "u3", "u5"), userIds(cse.getEntries()));
+        assertEquals(List.of(1, 3, 5), cse.getEntries().stream().map(LeaderboardEntry::getRank).toList());
+        assertEquals(List.of(1, 2, 3), cse.getEntries().stream().map(LeaderboardEntry::getBranchRank).toList());
+        assertEquals(List.of(1, 2, 3), standings.page("c1", false, COURSE_BTECH, 0, 10).getEntries().stream()
+                .map(LeaderboardEntry::getCourseRank).toList());
+    }
+
+    @Test
+    void segmentRanksFollowLaterSubmissions() {
+        segmentedUsers();
+        fiveUsers();
+        standings.entries("c1");
+
+        submit("u5", "p2", 60, 10);
+
+        LeaderboardPage cse = standings.page("c1", false, BRANCH_CSE, 0, 10);
+        assertEquals(List.of("u5", "u1", "u3"), userIds(cse.getEntries()));
+        assertEquals(1, cse.getEntries().get(0).getRank());
+        assertEquals(1, cse.getEntries().get(0).getBranchRank());
+        assertEquals(2, standings.around("c1", false, BRANCH_CSE, "u1", 0).getEntries().get(0).getBranchRank());
+    }
+
+    @Test
+    void aroundUserOutsideTheSegmentIsNotFound() {
+        segmentedUsers();
+        fiveUsers();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> standings.around("c1", false, BRANCH_CSE, "u2", 1));
+        assertEquals(404, e.getStatusCode().value());
+        assertEquals(0, standings.page("c1", false,
+                new LeaderboardSegment(LeaderboardSegment.Type.BRANCH, "MECH"), 0, 10).getTotal());
+    }
+
+    @Test
+    void finishedContestSegmentsAreRankedFromTheAggregation() {
+        when(aggregation.compute(List.of("c1"))).thenReturn(List.of(
+                LeaderboardEntry.builder().rank(1).userId("u1").branch("CSE").build(),
+                LeaderboardEntry.builder().rank(2).userId("u2").branch("ECE").build(),
+                LeaderboardEntry.builder().rank(3).userId("u3").branch("CSE").build()));
+
+        LeaderboardPage cse = standings.page("c1", true, BRANCH_CSE, 0, 10);
+
+        assertEquals(List.of("u1", "u3"), userIds(cse.getEntries()));
+        assertEquals(List.of(1, 2), cse.getEntries().stream().map(LeaderboardEntry::getBranchRank).toList());
+        assertEquals(List.of("u3"), userIds(standings.around("c1", true, BRANCH_CSE, "u3", 0).getEntries()));
+    }
+
+    @Test
+    void combinedLeaderboardIsCachedUntilOneOfItsContestsChanges() {
+        when(aggregation.compute(Set.of("c1", "c2"))).thenReturn(List.of(
+                LeaderboardEntry.builder().rank(1).userId("u1").build()));
+        when(aggregation.compute(Set.of("c1"))).thenReturn(List.of());
+
+        assertEquals(1, standings.combinedPage("club", List.of("c1", "c2"), null, 0, 10).getTotal());
+        standings.combinedPage("club", List.of("c2", "c1"), null, 0, 10);
+        verify(aggregation, times(1)).compute(Set.of("c1", "c2"));
+
+        submit("u1", "p1", 10, 1);
+        standings.combinedPage("club", List.of("c1", "c2"), null, 0, 10);
+        verify(aggregation, times(2)).compute(Set.of("c1", "c2"));
+
+        assertEquals(0, standings.combinedPage("club", List.of("c1"), null, 0, 10).getTotal());
+    }
+
+    // CSE: u1, u3, u5; ECE: u2; u4 has neither. BTech: u1, u2, u5
+    private void segmentedUsers() {
+        user("u1", "CSE", "BTech");
+        user("u2", "ECE", "BTech");
+        user("u3", "CSE", "MTech");
+        user("u4", null, null);
+        user("u5", "CSE", "BTech");
+    }
+
+    private void user(String id, String branch, String course) {
+        users.put(id, User.builder().id(id).username(id).rollNumber("R-" + id).branch(branch).course(course).build());
+    }
+
+    // u1 leads with 50, then u2..u5 with 40..10
+    private void fiveUsers() {
+        for (int i = 1; i <= 5; i++) {
+            submit("u" + i, "p1", 60 - 10 * i, i);
+        }
+    }
+
+    private void submit(String userId, String problemId, int score, int minute) {
+        Submission submission = Submission.builder()
+                .userId(userId)
+                .contestId("c1")
+                .problemId(problemId)
+                .score(score)
+                .submittedAt(at(minute))
+                .build();
+        stored.add(submission);
+        standings.record(submission);
+    }
+
+    private static Instant at(int minute) {
+        return START.plus(Duration.ofMinutes(minute));
+    }
+
+    private static Contest contest(Instant endTime) {
+        return Contest.builder().id("c1").endTime(endTime).build();
+    }
+
+    private static List<String> userIds(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getUserId).toList();
+    }
+}
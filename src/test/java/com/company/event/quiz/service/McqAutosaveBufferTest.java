@@ -0,0 +1,142 @@
+package com.company.event.quiz.service;
+
+import com.company.event.quiz.model.McqSubmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class McqAutosaveBufferTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final McqAutosaveBuffer buffer = new McqAutosaveBuffer(mongoTemplate, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, McqSubmission.class)).thenReturn(bulk);
+    }
+
+    @Test
+    void latestChoicesAreWrittenAsOneUpdatePerSession() {
+        buffer.record("e1", "s1", "q1", 1);
+        buffer.record("e1", "s1", "q1", 2);
+        buffer.record("e1", "s1", "q2", 0);
+        buffer.record("e1", "s1", "q2", null);
+        buffer.record("e1", "s2", "q1", 3);
+
+        buffer.flushAll();
+
+        Map<String, Document> updates = writtenUpdates(2);
+        Document s1 = updates.get("s1");
+        assertEquals(new Document("autosavedAnswers.q1", 2), s1.get("$set"));
+        assertEquals(new Document("autosavedAnswers.q2", 1), s1.get("$unset"));
+        assertEquals(new Document("autosavedAnswers.q1", 3), updates.get("s2").get("$set"));
+        verify(bulk).execute();
+    }
+
+    @Test
+    void pendingChoicesAreVisibleUntilFlushed() {
+        buffer.record("e1", "s1", "q1", 1);
+        buffer.record("e1", "s1", "q2", null);
+
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("q1", 1);
+        expected.put("q2", null);
+        assertEquals(expected, buffer.pendingFor("e1", "s1"));
+
+        buffer.flushAll();
+
+        assertTrue(buffer.pendingFor("e1", "s1").isEmpty());
+    }
+
+    @Test
+    void flushWritesOnlyTheGivenSessions() {
+        buffer.record("e1", "s1", "q1", 1);
+        buffer.record("e1", "s2", "q1", 2);
+
+        buffer.flush(List.of(new McqAutosaveBuffer.SessionKey("e1", "s1")));
+
+        assertEquals(1, writtenUpdates(1).size());
+        assertTrue(buffer.pendingFor("e1", "s1").isEmpty());
+        assertEquals(Map.of("q1", 2), buffer.pendingFor("e1", "s2"));
+    }
+
+    @Test
+    void nothingPendingSkipsTheWrite() {
+        buffer.flushAll();
+        buffer.flush(List.of(new McqAutosaveBuffer.SessionKey("e1", "s1")));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(McqSubmission.class));
+    }
+
+    @Test
+    void failedWriteIsRetriedAndNewerChoicesWin() {
+        buffer.record("e1", "s1", "q1", 1);
+        buffer.record("e1", "s1", "q2", 2);
+        when(bulk.execute()).thenAnswer(invocation -> {
+            // Still visible while the write is in flight
+            assertEquals(Map.of("q1", 1, "q2", 2), buffer.pendingFor("e1", "s1"));
+            buffer.record("e1", "s1", "q1", 3);
+            throw new IllegalStateException("network");
+        });
+
+        buffer.flushAll();
+
+        assertEquals(Map.of("q1", 3, "q2", 2), buffer.pendingFor("e1", "s1"));
+    }
+
+    @Test
+    void onlyRunningSessionsAreUpdated() {
+        buffer.record("e1", "s1", "q1", 1);
+
+        buffer.flushAll();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(bulk).updateOne(query.capture(), any(Update.class));
+        assertEquals("IN_PROGRESS", query.getValue().getQueryObject().get("status"));
+    }
+
+    @Test
+    void shutdownFlushesWhatIsLeft() {
+        buffer.record("e1", "s1", "q1", 1);
+
+        buffer.shutdown();
+
+        verify(bulk).execute();
+        assertTrue(buffer.pendingFor("e1", "s1").isEmpty());
+    }
+
+    // Update documents by student id
+    private Map<String, Document> writtenUpdates(int expected) {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(expected)).updateOne(queries.capture(), updates.capture());
+
+        Map<String, Document> byStudent = new HashMap<>();
+        for (int i = 0; i < expected; i++) {
+            byStudent.put((String) queries.getAllValues().get(i).getQueryObject().get("studentId"),
+                    updates.getAllValues().get(i).getUpdateObject());
+        }
+        return byStudent;
+    }
+}
@@ -0,0 +1,164 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.dto.McqResultDTO;
+import com.company.event.quiz.model.Answer;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.model.McqSubmission;
+import com.company.event.quiz.scheduler.McqAutoSubmitSweeper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.company.event.quiz.service.McqGradingPipelineTest.question;
+import static com.company.event.quiz.service.McqGradingPipelineTest.session;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deadline spike: every student submits at the same instant against a
+ * Mongo that costs a fixed round trip per read and per bulk write, and the
+ * achieved submits/sec is printed. Submitting one at a time would need two
+ * round trips per student, so batching has to beat that ceiling by a wide margin.
+ */
+class McqGradingPipelineLoadTest {
+
+    private static final int STUDENTS = 2000;
+    private static final int SUBMITTERS = 64;
+    private static final long ROUND_TRIP_MS = 2;
+
+    private final Map<String, McqSubmission> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedWrites = new AtomicInteger();
+    private final AtomicInteger lastMatched = new AtomicInteger();
+    private final AtomicInteger bulkWrites = new AtomicInteger();
+
+    @Test
+    void deadlineSpikeIsGradedInBatches() throws Exception {
+        for (int i = 0; i < STUDENTS; i++) {
+            String studentId = "s" + i;
+            sessions.put(studentId, session(studentId, "IN_PROGRESS", null));
+        }
+        McqGradingPipeline pipeline = pipeline();
+        pipeline.start();
+
+        List<Answer> answers = List.of(new Answer("q1", 1), new Answer("q2", 0));
+        @SuppressWarnings("unchecked")
+        CompletableFuture<McqResultDTO>[] results = new CompletableFuture[STUDENTS];
+
+        ExecutorService submitters = Executors.newFixedThreadPool(SUBMITTERS);
+        CountDownLatch deadline = new CountDownLatch(1);
+        CountDownLatch enqueued = new CountDownLatch(STUDENTS);
+        for (int t = 0; t < SUBMITTERS; t++) {
+            int first = t;
+            submitters.execute(() -> {
+                try {
+                    deadline.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = first; i < STUDENTS; i += SUBMITTERS) {
+                    results[i] = pipeline.submit("s" + i, "e1", answers);
+                    enqueued.countDown();
+                }
+            });
+        }
+
+        long started = System.nanoTime();
+        deadline.countDown();
+        assertTrue(enqueued.await(30, TimeUnit.SECONDS));
+        CompletableFuture.allOf(results).get(60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        submitters.shutdown();
+        pipeline.shutdown();
+
+        double rate = STUDENTS / seconds;
+        double oneAtATime = 1000.0 / (2 * ROUND_TRIP_MS);
+        System.out.printf("MCQ deadline spike: %d submits in %.3f s = %.0f submits/sec over %d bulk writes "
+                + "(one at a time would cap at %.0f submits/sec)%n", STUDENTS, seconds, rate, bulkWrites.get(), oneAtATime);
+
+        for (CompletableFuture<McqResultDTO> result : results) {
+            assertEquals(3, result.join().getScore());
+        }
+        assertTrue(bulkWrites.get() <= STUDENTS / 10, "submits were not batched");
+        assertTrue(rate > 2 * oneAtATime, "batching did not raise throughput");
+    }
+
+    private McqGradingPipeline pipeline() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult bulkResult = mock(BulkWriteResult.class);
+
+        when(mongoTemplate.find(any(Query.class), eq(McqSubmission.class))).thenAnswer(invocation -> {
+            roundTrip();
+            return sessionsFor(invocation.getArgument(0));
+        });
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, McqSubmission.class)).thenReturn(bulk);
+        when(bulk.updateOne(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            queuedWrites.incrementAndGet();
+            return bulk;
+        });
+        // Only the grader thread writes, so one shared bulk and result are enough
+        when(bulk.execute()).thenAnswer(invocation -> {
+            roundTrip();
+            bulkWrites.incrementAndGet();
+            lastMatched.set(queuedWrites.getAndSet(0));
+            return bulkResult;
+        });
+        when(bulkResult.getMatchedCount()).thenAnswer(invocation -> lastMatched.get());
+
+        @SuppressWarnings("unchecked")
+        EntityCache<Event> eventCache = mock(EntityCache.class);
+        when(eventCache.findById("e1")).thenReturn(Optional.of(new Event()));
+
+        QuestionSnapshotCache questionSnapshots = mock(QuestionSnapshotCache.class);
+        when(questionSnapshots.get("e1")).thenReturn(QuestionSnapshot.of(List.of(
+                question("q1", 1, 4.0, 1.0),
+                question("q2", 2, 4.0, 1.0)), new ObjectMapper()));
+
+        return new McqGradingPipeline(mongoTemplate, eventCache, questionSnapshots,
+                mock(McqRankIndex.class), mock(McqScoreStats.class), mock(McqAutosaveBuffer.class),
+                mock(McqCountdownHub.class), mock(McqAutoSubmitSweeper.class),
+                new SimpleMeterRegistry(), 200, STUDENTS);
+    }
+
+    private List<McqSubmission> sessionsFor(Query query) {
+        Document studentIds = (Document) query.getQueryObject().get("studentId");
+        List<McqSubmission> found = new ArrayList<>();
+        for (Object studentId : (Collection<?>) studentIds.get("$in")) {
+            McqSubmission session = sessions.get((String) studentId);
+            if (session != null) {
+                found.add(session);
+            }
+        }
+        return found;
+    }
+
+    private static void roundTrip() throws InterruptedException {
+        Thread.sleep(ROUND_TRIP_MS);
+    }
+}
@@ -0,0 +1,210 @@
+package com.company.event.quiz.service;
+
+import com.company.event.cache.EntityCache;
+import com.company.event.quiz.dto.McqResultDTO;
+import com.company.event.quiz.exception.TestAlreadySubmittedException;
+import com.company.event.quiz.exception.TestNotStartedException;
+import com.company.event.quiz.model.Answer;
+import com.company.event.quiz.model.Event;
+import com.company.event.quiz.model.McqQuestion;
+import com.company.event.quiz.model.McqSubmission;
+import com.company.event.quiz.scheduler.McqAutoSubmitSweeper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class McqGradingPipelineTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final BulkWriteResult bulkResult = mock(BulkWriteResult.class);
+    @SuppressWarnings("unchecked")
+    private final EntityCache<Event> eventCache = mock(EntityCache.class);
+    private final QuestionSnapshotCache questionSnapshots = mock(QuestionSnapshotCache.class);
+    private final McqRankIndex rankIndex = mock(McqRankIndex.class);
+    private final McqScoreStats scoreStats = mock(McqScoreStats.class);
+    private final McqAutosaveBuffer autosaveBuffer = mock(McqAutosaveBuffer.class);
+    private final McqCountdownHub countdownHub = mock(McqCountdownHub.class);
+    private final McqAutoSubmitSweeper autoSubmitSweeper = mock(McqAutoSubmitSweeper.class);
+
+    private final QuestionSnapshot snapshot = QuestionSnapshot.of(List.of(
+            question("q1", 1, 4.0, 1.0),
+            question("q2", 2, 4.0, 1.0),
+            question("q3", 0, 4.0, 1.0)), new ObjectMapper());
+
+    private McqGradingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, McqSubmission.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(bulkResult);
+        when(eventCache.findById("e1")).thenReturn(Optional.of(new Event()));
+        when(questionSnapshots.get("e1")).thenReturn(snapshot);
+        pipeline = pipeline(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void submittedAnswersOverrideAutosavedOnes() throws Exception {
+        Map<String, Integer> autosaved = new HashMap<>();
+        autosaved.put("q1", 1);
+        autosaved.put("q2", 0);
+        autosaved.put("deleted", 3);
+        when(mongoTemplate.find(any(Query.class), eq(McqSubmission.class)))
+                .thenReturn(List.of(session("s1", "IN_PROGRESS", autosaved)));
+        when(bulkResult.getMatchedCount()).thenReturn(1);
+
+        CompletableFuture<McqResultDTO> result = pipeline.submit("s1", "e1", List.of(new Answer("q2", 2)));
+        pipeline.start();
+
+        McqResultDTO dto = result.get(5, TimeUnit.SECONDS);
+        assertEquals(8, dto.getScore());
+        assertEquals(2, dto.getCorrectAnswers());
+        assertEquals(0, dto.getWrongAnswers());
+        verify(rankIndex).record(eq("e1"), eq("s1"), eq(8.0), any(Instant.class));
+        verify(autoSubmitSweeper).cancel("session-s1");
+    }
+
+    @Test
+    void secondSubmitInTheSameBatchLoses() throws Exception {
+        when(mongoTemplate.find(any(Query.class), eq(McqSubmission.class)))
+                .thenReturn(List.of(session("s1", "IN_PROGRESS", null)));
+        when(bulkResult.getMatchedCount()).thenReturn(1);
+
+        CompletableFuture<McqResultDTO> first = pipeline.submit("s1", "e1", List.of(new Answer("q1", 1)));
+        CompletableFuture<McqResultDTO> second = pipeline.submit("s1", "e1", List.of(new Answer("q1", 0)));
+        pipeline.start();
+
+        assertEquals(4, first.get(5, TimeUnit.SECONDS).getScore());
+        assertFailsWith(TestAlreadySubmittedException.class, second);
+    }
+
+    @Test
+    void submitWithoutSessionIsNotStarted() throws Exception {
+        when(mongoTemplate.find(any(Query.class), eq(McqSubmission.class))).thenReturn(List.of());
+
+        CompletableFuture<McqResultDTO> result = pipeline.submit("s1", "e1", List.of());
+        pipeline.start();
+
+        assertFailsWith(TestNotStartedException.class, result);
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(McqSubmission.class));
+    }
+
+    @Test
+    void sessionGradedBeforeTheWriteIsAlreadySubmitted() throws Exception {
+        McqSubmission swept = session("s1", "AUTO_SUBMITTED", null);
+        swept.setTotalScore(0.0);
+        when(mongoTemplate.find(any(Query.class), eq(McqSubmission.class)))
+                .thenReturn(List.of(session("s1", "IN_PROGRESS", null)), List.of(swept));
+        when(bulkResult.getMatchedCount()).thenReturn(0);
+
+        CompletableFuture<McqResultDTO> result = pipeline.submit("s1", "e1", List.of(new Answer("q1", 1)));
+        pipeline.start();
+
+        assertFailsWith(TestAlreadySubmittedException.class, result);
+        verify(rankIndex, never()).record(anyString(), anyString(), anyDouble(), any(Instant.class));
+        verify(autoSubmitSweeper, never()).cancel(anyString());
+    }
+
+    @Test
+    void fullQueueRejectsWithServiceUnavailable() {
+        pipeline.shutdown();
+        pipeline = pipeline(1);
+
+        pipeline.submit("s1", "e1", List.of());
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> pipeline.submit("s2", "e1", List.of()));
+
+        assertEquals(503, e.getStatusCode().value());
+    }
+
+    @Test
+    void mergeDropsAutosavesForRemovedQuestions() {
+        Map<String, Integer> autosaved = new HashMap<>();
+        autosaved.put("deleted", 1);
+        autosaved.put("q3", 0);
+
+        List<Answer> merged = McqGradingPipeline.merge(autosaved,
+                List.of(new Answer("q1", null)), snapshot.getAnswerKey());
+
+        assertEquals(2, merged.size());
+        assertTrue(merged.contains(new Answer("q3", 0)));
+        assertTrue(merged.contains(new Answer("q1", null)));
+    }
+
+    @Test
+    void autoSubmittedSessionWithoutScoreIsNotGraded() {
+        McqSubmission session = session("s1", "AUTO_SUBMITTED", null);
+        assertFalse(McqGradingPipeline.isGraded(session));
+
+        session.setTotalScore(3.0);
+        assertTrue(McqGradingPipeline.isGraded(session));
+    }
+
+    private McqGradingPipeline pipeline(int queueCapacity) {
+        return new McqGradingPipeline(mongoTemplate, eventCache, questionSnapshots, rankIndex, scoreStats,
+                autosaveBuffer, countdownHub, autoSubmitSweeper, new SimpleMeterRegistry(), 200, queueCapacity);
+    }
+
+    private static void assertFailsWith(Class<? extends Throwable> type, CompletableFuture<?> result) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(type, e.getCause());
+    }
+
+    static McqQuestion question(String id, int correctOption, double marks, double negativeMarks) {
+        McqQuestion question = new McqQuestion();
+        question.setId(id);
+        question.setEventId("e1");
+        question.setQuestionText(id);
+        question.setOptions(List.of("a", "b", "c", "d"));
+        question.setCorrectOption(correctOption);
+        question.setMarks(marks);
+        question.setNegativeMarks(negativeMarks);
+        return question;
+    }
+
+    static McqSubmission session(String studentId, String status, Map<String, Integer> autosaved) {
+        McqSubmission session = new McqSubmission();
+        session.setId("session-" + studentId);
+        session.setEventId("e1");
+        session.setStudentId(studentId);
+        session.setStartTime(Instant.now());
+        session.setStatus(status);
+        session.setAutosavedAnswers(autosaved);
+        return session;
+    }
+}
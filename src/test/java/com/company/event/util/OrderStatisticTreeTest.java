@@ -0,0 +1,110 @@
+package com.company.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatisticTreeTest {
+
+    // Higher score first, ties broken by id, the way the standings order rows
+    record Key(int score, String id) {
+    }
+
+    private static final Comparator<Key> ORDER = Comparator.comparingInt(Key::score).reversed()
+            .thenComparing(Key::id);
+
+    @Test
+    void ranksTiedScoresByTieBreaker() {
+        OrderStatisticTree<Key> tree = new OrderStatisticTree<>(ORDER);
+        tree.add(new Key(50, "c"));
+        tree.add(new Key(100, "b"));
+        tree.add(new Key(50, "a"));
+        tree.add(new Key(100, "a"));
+
+        assertEquals(0, tree.rank(new Key(100, "a")));
+        assertEquals(1, tree.rank(new Key(100, "b")));
+        assertEquals(2, tree.rank(new Key(50, "a")));
+        assertEquals(3, tree.rank(new Key(50, "c")));
+        // Absent keys rank where they would be inserted
+        assertEquals(3, tree.rank(new Key(50, "b")));
+        assertEquals(4, tree.rank(new Key(0, "a")));
+        assertEquals(0, tree.rank(new Key(200, "z")));
+    }
+
+    @Test
+    void rejectsKeysThatCompareEqual() {
+        OrderStatisticTree<Key> tree = new OrderStatisticTree<>(Comparator.comparingInt(Key::score));
+
+        assertTrue(tree.add(new Key(10, "a")));
+        assertFalse(tree.add(new Key(10, "b")));
+        assertEquals(1, tree.size());
+        assertEquals("a", tree.get(0).id());
+    }
+
+    @Test
+    void removesByEqualKeyAndLeavesTiesInPlace() {
+        OrderStatisticTree<Key> tree = new OrderStatisticTree<>(ORDER);
+        tree.add(new Key(70, "a"));
+        tree.add(new Key(70, "b"));
+        tree.add(new Key(70, "c"));
+
+        assertTrue(tree.remove(new Key(70, "b")));
+        assertFalse(tree.remove(new Key(70, "b")));
+        assertFalse(tree.remove(new Key(60, "a")));
+
+        assertEquals(2, tree.size());
+        assertEquals(List.of(new Key(70, "a"), new Key(70, "c")), tree.range(0, 2));
+        assertEquals(1, tree.rank(new Key(70, "c")));
+    }
+
+    @Test
+    void rangeIsClampedToTheTree() {
+        OrderStatisticTree<Key> tree = new OrderStatisticTree<>(ORDER);
+        for (int i = 0; i < 5; i++) {
+            tree.add(new Key(i, "u" + i));
+        }
+
+        assertEquals(List.of(new Key(4, "u4"), new Key(3, "u3")), tree.range(-3, 2));
+        assertEquals(List.of(new Key(1, "u1"), new Key(0, "u0")), tree.range(3, 100));
+        assertTrue(tree.range(5, 10).isEmpty());
+        assertTrue(tree.range(3, 2).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(5));
+    }
+
+    @Test
+    void matchesASortedListUnderRandomUpdates() {
+        OrderStatisticTree<Key> tree = new OrderStatisticTree<>(ORDER);
+        List<Key> expected = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 2000; step++) {
+            // Few distinct scores, so most keys tie on score
+            Key key = new Key(random.nextInt(5), "u" + random.nextInt(50));
+            if (random.nextBoolean()) {
+                assertEquals(!expected.contains(key), tree.add(key));
+                if (!expected.contains(key)) {
+                    expected.add(key);
+                }
+            } else {
+                assertEquals(expected.remove(key), tree.remove(key));
+            }
+            expected.sort(ORDER);
+
+            assertEquals(expected.size(), tree.size());
+            long smaller = expected.stream().filter(k -> ORDER.compare(k, key) < 0).count();
+            assertEquals(smaller, tree.rank(key));
+        }
+        assertEquals(expected, tree.range(0, expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tree.get(i));
+        }
+    }
+}
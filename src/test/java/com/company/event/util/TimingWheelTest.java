@@ -0,0 +1,97 @@
+package com.company.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    // One-second ticks, ten seconds per turn
+    private final TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 10, START);
+
+    @Test
+    void releasesItemsOnceTheirDeadlineIsReached() {
+        wheel.schedule("a", START.plusSeconds(3));
+        wheel.schedule("b", START.plusMillis(3500));
+
+        assertTrue(wheel.advance(START.plusMillis(2999)).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START.plusSeconds(3)));
+        // Rounded up to the next tick
+        assertTrue(wheel.advance(START.plusMillis(3999)).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(START.plusSeconds(4)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesComeOutOnTheNextTick() {
+        wheel.advance(START.plusSeconds(5));
+        wheel.schedule("late", START);
+
+        assertEquals(List.of("late"), wheel.advance(START.plusSeconds(6)));
+    }
+
+    @Test
+    void wrapsAroundForDeadlinesBeyondOneTurn() {
+        // Same bucket as tick 3, but two turns later
+        wheel.schedule("far", START.plusSeconds(23));
+        wheel.schedule("near", START.plusSeconds(3));
+
+        assertEquals(List.of("near"), wheel.advance(START.plusSeconds(3)));
+        assertTrue(wheel.advance(START.plusSeconds(13)).isEmpty());
+        assertTrue(wheel.advance(START.plusSeconds(22)).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(START.plusSeconds(23)));
+    }
+
+    @Test
+    void catchesUpOverSeveralTurnsInOneAdvance() {
+        wheel.schedule("a", START.plusSeconds(4));
+        wheel.schedule("b", START.plusSeconds(17));
+        wheel.schedule("c", START.plusSeconds(35));
+
+        assertEquals(List.of("a", "b", "c"), wheel.advance(START.plusSeconds(40)));
+    }
+
+    @Test
+    void cancelledItemsNeverComeOut() {
+        wheel.schedule("a", START.plusSeconds(2));
+        wheel.schedule("b", START.plusSeconds(2));
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertFalse(wheel.cancel("unknown"));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("b"), wheel.advance(START.plusSeconds(2)));
+    }
+
+    @Test
+    void itemCanBeScheduledAgainAfterBeingCancelled() {
+        wheel.schedule("a", START.plusSeconds(5));
+        wheel.cancel("a");
+        // The empty wheel jumps past tick 5; the new slot lands in the same bucket a turn later
+        wheel.advance(START.plusSeconds(7));
+        wheel.schedule("a", START.plusSeconds(15));
+
+        assertTrue(wheel.advance(START.plusSeconds(14)).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START.plusSeconds(15)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedulingAgainReplacesTheDeadline() {
+        wheel.schedule("a", START.plusSeconds(2));
+        wheel.schedule("a", START.plusSeconds(6));
+
+        assertEquals(1, wheel.size());
+        assertTrue(wheel.advance(START.plusSeconds(5)).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START.plusSeconds(6)));
+        assertEquals(0, wheel.size());
+    }
+}